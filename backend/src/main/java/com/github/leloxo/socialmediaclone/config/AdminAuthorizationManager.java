@@ -0,0 +1,44 @@
+package com.github.leloxo.socialmediaclone.config;
+
+import com.github.leloxo.socialmediaclone.model.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Admits only the administrators listed by email in {@code security.admin-emails}. Users carry
+ * no roles, so administrators are configured per deployment; with none configured nobody is
+ * admitted.
+ */
+@Component
+public class AdminAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    private final Set<String> adminEmails;
+
+    public AdminAuthorizationManager(@Value("${security.admin-emails:}") List<String> adminEmails) {
+        this.adminEmails = adminEmails.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication current = authentication.get();
+        boolean admin = current != null
+                && current.isAuthenticated()
+                && current.getPrincipal() instanceof UserPrincipal principal
+                && adminEmails.contains(principal.getUsername().toLowerCase(Locale.ROOT));
+        return new AuthorizationDecision(admin);
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.leloxo.socialmediaclone.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfiguration {
+    @Value("${feed.timeline.fan-out-threads:2}")
+    private int fanOutThreads;
+
+    @Value("${feed.timeline.fan-out-queue-capacity:1000}")
+    private int fanOutQueueCapacity;
+
+    // 0 uses one thread per available processor
+    @Value("${security.password.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${security.password.hashing-queue-capacity:100}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password.continuation-threads:4}")
+    private int continuationThreads;
+
+    // Suggestion batches query the database, so this also bounds the connections they hold
+    @Value("${follows.suggestions.parallelism:4}")
+    private int suggestionParallelism;
+
+    @Bean
+    public ThreadPoolTaskExecutor timelineExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fanOutThreads);
+        executor.setMaxPoolSize(fanOutThreads);
+        executor.setQueueCapacity(fanOutQueueCapacity);
+        executor.setThreadNamePrefix("timeline-");
+        // Fall back to fanning out on the posting thread rather than dropping timeline updates;
+        // the fan-out listener opens its own transaction for that case
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(hashingQueueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        // Reject instead of hashing on the request thread; the caller answers with 503
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // Finishes signups and logins (saving users, issuing tokens) once the hash is done, so hashing
+    // workers only ever hash; its inflow is already bounded by the hashing queue
+    @Bean
+    public ThreadPoolTaskExecutor authenticationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(continuationThreads);
+        executor.setMaxPoolSize(continuationThreads);
+        executor.setThreadNamePrefix("authentication-");
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool suggestionPool() {
+        return new ForkJoinPool(suggestionParallelism);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.leloxo.socialmediaclone.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheRegionProperties.class)
+public class CacheConfiguration {
+    private static final List<String> REGIONS = List.of(
+            CacheNames.POST_DETAILS,
+            CacheNames.POST_LATEST_COMMENTS,
+            CacheNames.USER_POSTS_BY_NAME,
+            CacheNames.USER_FEED,
+            CacheNames.POST_LIKE_COUNT,
+            CacheNames.POST_COMMENT_COUNT,
+            CacheNames.USER_ACTIVE_STATUS,
+            CacheNames.USER_SUGGESTIONS
+    );
+
+    // Regions keyed by PageCacheKey, whose pages are evicted per owner
+    private static final Set<String> PAGED_REGIONS = Set.of(
+            CacheNames.USER_POSTS_BY_NAME,
+            CacheNames.USER_FEED
+    );
+
+    @Bean
+    public CacheManager cacheManager(CacheRegionProperties cacheRegionProperties) {
+        Map<String, OwnerIndexedCache.KeyIndex> keyIndexes = new HashMap<>();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            @NonNull
+            protected Cache adaptCaffeineCache(@NonNull String name, @NonNull com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                OwnerIndexedCache.KeyIndex keyIndex = keyIndexes.get(name);
+                return keyIndex == null
+                        ? super.adaptCaffeineCache(name, cache)
+                        : new OwnerIndexedCache(name, cache, isAllowNullValues(), keyIndex);
+            }
+        };
+        cacheManager.setCaffeine(newBuilder(cacheRegionProperties.getDefaults()));
+
+        // Registered up front so that hit/miss/eviction metrics are bound for every region at startup
+        for (String region : REGIONS) {
+            CacheRegionProperties.Region settings = cacheRegionProperties.getRegions()
+                    .getOrDefault(region, cacheRegionProperties.getDefaults());
+            Caffeine<Object, Object> builder = newBuilder(settings);
+            if (PAGED_REGIONS.contains(region)) {
+                OwnerIndexedCache.KeyIndex keyIndex = new OwnerIndexedCache.KeyIndex();
+                keyIndexes.put(region, keyIndex);
+                builder = builder.evictionListener((key, value, cause) -> keyIndex.remove(key));
+            }
+            cacheManager.registerCustomCache(region, builder.build());
+        }
+
+        return cacheManager;
+    }
+
+    private Caffeine<Object, Object> newBuilder(CacheRegionProperties.Region settings) {
+        return Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getTimeToLive())
+                .recordStats();
+    }
+}
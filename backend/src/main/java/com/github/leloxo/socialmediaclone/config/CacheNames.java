@@ -0,0 +1,15 @@
+package com.github.leloxo.socialmediaclone.config;
+
+public final class CacheNames {
+    public static final String POST_DETAILS = "postDetails";
+    public static final String POST_LATEST_COMMENTS = "postLatestComments";
+    public static final String USER_POSTS_BY_NAME = "userPostsByName";
+    public static final String USER_FEED = "userFeed";
+    public static final String POST_LIKE_COUNT = "postLikeCount";
+    public static final String POST_COMMENT_COUNT = "postCommentCount";
+    public static final String USER_ACTIVE_STATUS = "userActiveStatus";
+    public static final String USER_SUGGESTIONS = "userSuggestions";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.leloxo.socialmediaclone.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-region cache settings, e.g. {@code cache.regions.userFeed.maximum-size=10000}.
+ * Regions without an entry use the defaults.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache")
+public class CacheRegionProperties {
+    private Region defaults = new Region();
+    private Map<String, Region> regions = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+        private long maximumSize = 1000;
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+}
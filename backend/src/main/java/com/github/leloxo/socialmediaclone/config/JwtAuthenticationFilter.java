@@ -1,11 +1,15 @@
 package com.github.leloxo.socialmediaclone.config;
 
 import com.github.leloxo.socialmediaclone.service.JwtService;
+import com.github.leloxo.socialmediaclone.service.UserStatusService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,23 +21,41 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final HandlerExceptionResolver handlerExceptionResolver;
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserStatusService userStatusService;
+
+    // Build the principal from token claims instead of loading the user on every request
+    @Value("${security.jwt.stateless-principal:true}")
+    private boolean statelessPrincipal;
+
+    // Re-check the (cached) active flag, so deactivated users are locked out before their token expires
+    @Value("${security.jwt.check-active-status:true}")
+    private boolean checkActiveStatus;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
             UserDetailsService userDetailsService,
+            UserStatusService userStatusService,
             HandlerExceptionResolver handlerExceptionResolver
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.userStatusService = userStatusService;
         this.handlerExceptionResolver = handlerExceptionResolver;
     }
 
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // The access token sent along is usually the expired one being replaced
+        return "/auth/refresh".equals(request.getServletPath());
+    }
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -49,14 +71,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            // Signature and expiry are verified once here; everything below works on the claims
+            final Claims claims = jwtService.parseToken(jwt);
+            final String userEmail = claims.getSubject();
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
             if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = loadPrincipal(claims, userEmail);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(jwt, claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -73,4 +97,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             handlerExceptionResolver.resolveException(request, response, null, exception);
         }
     }
+
+    private UserDetails loadPrincipal(Claims claims, String userEmail) {
+        if (statelessPrincipal) {
+            Optional<JwtUserPrincipal> principal = jwtService.extractPrincipal(claims);
+            if (principal.isPresent()) {
+                JwtUserPrincipal jwtPrincipal = principal.get();
+                if (!jwtPrincipal.isEnabled() || (checkActiveStatus && !userStatusService.isActive(jwtPrincipal.getId()))) {
+                    throw new DisabledException("User account is disabled");
+                }
+                return jwtPrincipal;
+            }
+        }
+
+        return this.userDetailsService.loadUserByUsername(userEmail);
+    }
 }
@@ -0,0 +1,57 @@
+package com.github.leloxo.socialmediaclone.config;
+
+import com.github.leloxo.socialmediaclone.model.UserPrincipal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built from the claims of a verified token, without loading the user entity.
+ */
+@Getter
+@AllArgsConstructor
+public class JwtUserPrincipal implements UserPrincipal {
+    private final Long id;
+    private final String email;
+    private final String displayUsername;
+    private final boolean active;
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        // Same as User: the email is the username for Spring Security
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return active;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return active;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return active;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.leloxo.socialmediaclone.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache region of paged reads that keeps its {@link PageCacheKey}s indexed by owner, so every
+ * cached page of an owner is evicted by key instead of by scanning the whole region.
+ * <p>
+ * Keys are indexed after they are stored and leave the index when Caffeine evicts them (see
+ * {@link CacheConfiguration}); an index entry may briefly outlive its page, never the reverse.
+ */
+public class OwnerIndexedCache extends CaffeineCache {
+    private final KeyIndex keyIndex;
+
+    OwnerIndexedCache(String name, Cache<Object, Object> cache, boolean allowNullValues, KeyIndex keyIndex) {
+        super(name, cache, allowNullValues);
+        this.keyIndex = keyIndex;
+    }
+
+    public void evictOwners(Collection<?> owners) {
+        for (Object owner : owners) {
+            keyIndex.removeOwner(owner).forEach(getNativeCache()::invalidate);
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        T value = super.get(key, valueLoader);
+        keyIndex.add(key);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        super.put(key, value);
+        keyIndex.add(key);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        keyIndex.add(key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        keyIndex.remove(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = super.evictIfPresent(key);
+        keyIndex.remove(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        keyIndex.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = super.invalidate();
+        keyIndex.clear();
+        return invalidated;
+    }
+
+    // Owner -> cached page keys; a set is only changed inside compute and dropped once empty
+    static final class KeyIndex {
+        private final ConcurrentHashMap<Object, Set<PageCacheKey>> keysByOwner = new ConcurrentHashMap<>();
+
+        void add(Object key) {
+            if (key instanceof PageCacheKey pageKey) {
+                keysByOwner.compute(pageKey.getOwner(), (owner, keys) -> {
+                    Set<PageCacheKey> ownerKeys = keys == null ? new HashSet<>() : keys;
+                    ownerKeys.add(pageKey);
+                    return ownerKeys;
+                });
+            }
+        }
+
+        void remove(Object key) {
+            if (key instanceof PageCacheKey pageKey) {
+                keysByOwner.computeIfPresent(pageKey.getOwner(), (owner, keys) -> {
+                    keys.remove(pageKey);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+        }
+
+        Set<PageCacheKey> removeOwner(Object owner) {
+            Set<PageCacheKey> keys = keysByOwner.remove(owner);
+            return keys == null ? Set.of() : keys;
+        }
+
+        void clear() {
+            keysByOwner.clear();
+        }
+    }
+}
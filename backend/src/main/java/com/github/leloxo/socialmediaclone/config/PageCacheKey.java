@@ -0,0 +1,15 @@
+package com.github.leloxo.socialmediaclone.config;
+
+import lombok.Value;
+
+/**
+ * Cache key of one page of a paged read. The owner (user ID or username) is kept separately
+ * so that every cached page of an owner can be evicted at once.
+ */
+@Value
+public class PageCacheKey {
+    Object owner;
+    int page;
+    int size;
+    String sort;
+}
@@ -0,0 +1,26 @@
+package com.github.leloxo.socialmediaclone.config;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Builds a {@link PageCacheKey} from a method whose first parameter is the owner of the
+ * paged data and which also takes a {@link Pageable}.
+ */
+@Component
+public class PageCacheKeyGenerator implements KeyGenerator {
+    @Override
+    @NonNull
+    public Object generate(@NonNull Object target, @NonNull Method method, @NonNull Object... params) {
+        for (Object param : params) {
+            if (param instanceof Pageable pageable) {
+                return new PageCacheKey(params[0], pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+            }
+        }
+        throw new IllegalStateException("Method " + method.getName() + " has no Pageable parameter");
+    }
+}
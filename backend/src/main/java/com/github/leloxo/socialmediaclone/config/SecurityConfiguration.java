@@ -19,13 +19,16 @@ import java.util.List;
 public class SecurityConfiguration {
     private final AuthenticationProvider authenticationProvider;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final AdminAuthorizationManager adminAuthorizationManager;
 
     public SecurityConfiguration(
             JwtAuthenticationFilter jwtAuthenticationFilter,
-            AuthenticationProvider authenticationProvider
+            AuthenticationProvider authenticationProvider,
+            AdminAuthorizationManager adminAuthorizationManager
     ) {
         this.authenticationProvider = authenticationProvider;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.adminAuthorizationManager = adminAuthorizationManager;
     }
 
     @Bean
@@ -34,9 +37,11 @@ public class SecurityConfiguration {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/auth/devices/**").authenticated()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/health/**").permitAll()
                         .requestMatchers("/users/exists/**").permitAll()
+                        .requestMatchers("/users/export").access(adminAuthorizationManager)
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -1,13 +1,16 @@
 package com.github.leloxo.socialmediaclone.controller;
 
 import com.github.leloxo.socialmediaclone.dto.request.LoginRequest;
+import com.github.leloxo.socialmediaclone.dto.request.RefreshTokenRequest;
 import com.github.leloxo.socialmediaclone.dto.request.RegisterUserRequest;
 import com.github.leloxo.socialmediaclone.dto.response.ApiResponse;
 import com.github.leloxo.socialmediaclone.dto.response.AuthenticationResponse;
 import com.github.leloxo.socialmediaclone.dto.response.LoginResponse;
 import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.model.UserPrincipal;
 import com.github.leloxo.socialmediaclone.service.AuthenticationService;
 import com.github.leloxo.socialmediaclone.service.JwtService;
+import com.github.leloxo.socialmediaclone.service.RefreshTokenService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -15,9 +18,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 @RequestMapping("/auth")
 @RestController
 public class AuthenticationController {
@@ -33,32 +40,49 @@ public class AuthenticationController {
 
     // TODO: Use RegisterResponse class
     @PostMapping("/signup")
-    public ResponseEntity<ApiResponse> register(
+    public CompletableFuture<ResponseEntity<ApiResponse>> register(
             @Valid @RequestBody RegisterUserRequest registerUserRequest
     ) {
-        User registeredUser = authenticationService.signup(registerUserRequest);
-
-        logger.info("{} registered successfully", registeredUser.getDisplayUsername());
+        return authenticationService.signup(registerUserRequest).thenApply(registeredUser -> {
+            logger.info("{} registered successfully", registeredUser.getDisplayUsername());
 
-        return ResponseEntity.ok(new ApiResponse(true, "Successfully registered"));
+            return ResponseEntity.ok(new ApiResponse(true, "Successfully registered"));
+        });
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> authenticate(
+    public CompletableFuture<ResponseEntity<LoginResponse>> authenticate(
             @Valid @RequestBody LoginRequest loginRequest
     ) {
-        User authenticatedUser = authenticationService.authenticate(loginRequest);
+        return authenticationService.authenticate(loginRequest).thenApply(authenticatedUser -> {
+            String deviceId = loginRequest.getDeviceId() != null ? loginRequest.getDeviceId() : UUID.randomUUID().toString();
+            String refreshToken = authenticationService.issueRefreshToken(authenticatedUser, deviceId);
 
-        String jwtToken = jwtService.generateToken(authenticatedUser);
+            logger.info("{} logged in successfully", authenticatedUser.getDisplayUsername());
 
-        LoginResponse loginResponse = new LoginResponse();
-        loginResponse.setToken(jwtToken);
-        loginResponse.setExpiresIn(jwtService.getExpirationTime());
-        loginResponse.setUsername(authenticatedUser.getDisplayUsername());
+            return ResponseEntity.ok(buildLoginResponse(authenticatedUser, deviceId, refreshToken));
+        });
+    }
 
-        logger.info("{} logged in successfully", authenticatedUser.getDisplayUsername());
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(
+            @Valid @RequestBody RefreshTokenRequest refreshTokenRequest
+    ) {
+        RefreshTokenService.RotatedToken rotated = authenticationService.refresh(refreshTokenRequest.getRefreshToken());
 
-        return ResponseEntity.ok(loginResponse);
+        return ResponseEntity.ok(buildLoginResponse(rotated.getUser(), rotated.getDeviceId(), rotated.getRefreshToken()));
+    }
+
+    @DeleteMapping("/devices/{deviceId}")
+    public ResponseEntity<ApiResponse> revokeDevice(
+            @PathVariable String deviceId,
+            @AuthenticationPrincipal UserPrincipal currentUser
+    ) {
+        authenticationService.revokeDevice(currentUser.getId(), deviceId);
+
+        logger.info("{} signed out device {}", currentUser.getDisplayUsername(), deviceId);
+
+        return ResponseEntity.ok(new ApiResponse(true, "Device signed out"));
     }
 
     // TODO:
@@ -87,6 +111,17 @@ public class AuthenticationController {
         return ResponseEntity.badRequest().body(new ApiResponse(false, "Logout failed"));
     }
 
+    private LoginResponse buildLoginResponse(User user, String deviceId, String refreshToken) {
+        LoginResponse loginResponse = new LoginResponse();
+        loginResponse.setToken(jwtService.generateToken(user, deviceId));
+        loginResponse.setExpiresIn(jwtService.getExpirationTime());
+        loginResponse.setRefreshToken(refreshToken);
+        loginResponse.setRefreshExpiresIn(authenticationService.getRefreshExpirationTime());
+        loginResponse.setDeviceId(deviceId);
+        loginResponse.setUsername(user.getDisplayUsername());
+        return loginResponse;
+    }
+
     private String extractToken(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -4,15 +4,21 @@ import com.github.leloxo.socialmediaclone.dto.DataConvertor;
 import com.github.leloxo.socialmediaclone.dto.request.CommentRequest;
 import com.github.leloxo.socialmediaclone.dto.request.UploadPostRequest;
 import com.github.leloxo.socialmediaclone.dto.response.ApiResponse;
+import com.github.leloxo.socialmediaclone.dto.response.CommentDetailsResponse;
 import com.github.leloxo.socialmediaclone.dto.response.CommentResponse;
 import com.github.leloxo.socialmediaclone.dto.response.LikeResponse;
+import com.github.leloxo.socialmediaclone.dto.response.LikeStatusesResponse;
 import com.github.leloxo.socialmediaclone.dto.response.PostDetailsResponse;
 import com.github.leloxo.socialmediaclone.exception.CloudinaryDeleteException;
 import com.github.leloxo.socialmediaclone.exception.ResourceNotFoundException;
+import com.github.leloxo.socialmediaclone.model.Comment;
 import com.github.leloxo.socialmediaclone.model.Post;
-import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.model.UserPrincipal;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.pagination.CursorPage;
 import com.github.leloxo.socialmediaclone.service.PostService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -22,28 +28,37 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Validated
 @RestController
 @RequestMapping("/posts")
 public class PostController {
     private static final Logger logger = LoggerFactory.getLogger(PostController.class);
 
     private final PostService postService;
+    private final PostViewerFlags postViewerFlags;
     private final DataConvertor dataConvertor;
 
-    public PostController(PostService postService, DataConvertor dataConvertor) {
+    public PostController(PostService postService, PostViewerFlags postViewerFlags, DataConvertor dataConvertor) {
         this.postService = postService;
+        this.postViewerFlags = postViewerFlags;
         this.dataConvertor = dataConvertor;
     }
 
     @PostMapping
     public ResponseEntity<PostDetailsResponse> uploadPost(
             @Valid @ModelAttribute UploadPostRequest uploadPostRequest,
-            @AuthenticationPrincipal User currentUser
+            @AuthenticationPrincipal UserPrincipal currentUser
     ) throws IOException, ResourceNotFoundException {
         logger.info("Received request to create post from user: {}", currentUser.getUsername());
 
@@ -67,34 +82,69 @@ public class PostController {
         return ResponseEntity.status(HttpStatus.CREATED).body(imageUrl);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<PostDetailsResponse>> searchPosts(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        List<Post> posts = postService.searchPosts(query, CursorPage.normalizeSize(limit));
+        List<PostDetailsResponse> postDtos = dataConvertor.toPostSummaryDtoList(posts);
+        postViewerFlags.apply(postDtos, currentUser.getId());
+        return ResponseEntity.ok(postDtos);
+    }
+
     // TODO: add HATEOAS?
     @GetMapping("/{postId}")
     public ResponseEntity<PostDetailsResponse> getPostById(
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long postId
     ) throws ResourceNotFoundException {
         logger.info("Retrieving post with ID: {}", postId);
 
         Post post = postService.getPostById(postId);
-        return ResponseEntity.ok(dataConvertor.toPostDto(post));
+        PostDetailsResponse postDto = dataConvertor.toPostDto(post, postService.getLatestComments(postId));
+        postViewerFlags.apply(List.of(postDto), currentUser.getId());
+        return ResponseEntity.ok(postDto);
     }
 
     @GetMapping("/user/{username}")
     public ResponseEntity<Page<PostDetailsResponse>> getPostsByUser(
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable String username,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
     ) {
         logger.info("Retrieving posts for user: {}, page: {}, size: {}", username, pageable.getPageNumber(), pageable.getPageSize());
 
         Page<Post> posts = postService.getPostsByUserName(username, pageable);
-        Page<PostDetailsResponse> postDtos = posts.map(dataConvertor::toPostDto);
+        Page<PostDetailsResponse> postDtos = dataConvertor.toPostSummaryDtoPage(posts);
+        postViewerFlags.apply(postDtos.getContent(), currentUser.getId());
 
         logger.info("Retrieved {} posts for user: {}", posts.getTotalElements(), username);
         return ResponseEntity.ok(postDtos);
     }
 
+    @GetMapping("/user/{username}/cursor")
+    public ResponseEntity<CursorPage<PostDetailsResponse>> getPostsByUserWithCursor(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @PathVariable String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        logger.info("Retrieving posts for user: {}, size: {}", username, size);
+
+        CursorPage<Post> posts = postService.getPostsByUserName(username, Cursor.decodeOrStart(cursor), CursorPage.normalizeSize(size));
+
+        CursorPage<PostDetailsResponse> postDtos = dataConvertor.toPostSummaryDtoPage(posts);
+        postViewerFlags.apply(postDtos.getItems(), currentUser.getId());
+
+        logger.info("Retrieved {} posts for user: {}", posts.getItems().size(), username);
+        return ResponseEntity.ok(postDtos);
+    }
+
     @DeleteMapping("/{postId}")
     public ResponseEntity<ApiResponse> removePost(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long postId
     ) throws ResourceNotFoundException, CloudinaryDeleteException {
         logger.info("User {} is removing post {}", currentUser.getUsername(), postId);
@@ -111,31 +161,48 @@ public class PostController {
     // TODO: response message
     @GetMapping("/feed")
     public ResponseEntity<Page<PostDetailsResponse>> getFeed(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
     ) throws ResourceNotFoundException {
         logger.info("Retrieving feed for user: {}, page: {}, size: {}", currentUser.getUsername(), pageable.getPageNumber(), pageable.getPageSize());
 
         Page<Post> feed = postService.getFeedForUser(currentUser.getId(), pageable);
 //        Page<PostFeedResponse> feedDtos = feed.map(dataConvertor::toFeedDto);
-        Page<PostDetailsResponse> postDtos = feed.map(dataConvertor::toPostDto);
+        Page<PostDetailsResponse> postDtos = dataConvertor.toPostSummaryDtoPage(feed);
+        postViewerFlags.apply(postDtos.getContent(), currentUser.getId());
 
         logger.info("Retrieved {} feed posts for user: {}", feed.getTotalElements(), currentUser.getUsername());
         return ResponseEntity.ok(postDtos);
     }
 
+    @GetMapping("/feed/cursor")
+    public ResponseEntity<CursorPage<PostDetailsResponse>> getFeedWithCursor(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) throws ResourceNotFoundException {
+        logger.info("Retrieving feed for user: {}, size: {}", currentUser.getUsername(), size);
+
+        CursorPage<Post> feed = postService.getFeedForUser(currentUser.getId(), Cursor.decodeOrStart(cursor), CursorPage.normalizeSize(size));
+
+        CursorPage<PostDetailsResponse> postDtos = dataConvertor.toPostSummaryDtoPage(feed);
+        postViewerFlags.apply(postDtos.getItems(), currentUser.getId());
+
+        logger.info("Retrieved {} feed posts for user: {}", feed.getItems().size(), currentUser.getUsername());
+        return ResponseEntity.ok(postDtos);
+    }
+
     @PostMapping("/{postId}/like")
     public ResponseEntity<LikeResponse> likePost(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long postId
     ) throws ResourceNotFoundException {
         try {
-            Post post = postService.likePost(postId, currentUser.getId());
-            int newLikeCount = postService.getLikeCount(postId);
+            int newLikeCount = postService.likePost(postId, currentUser.getId());
 
             logger.info("User {} is liking post {}", currentUser.getUsername(), postId);
 
-            return ResponseEntity.ok(new LikeResponse(post.getId(), newLikeCount, "Post liked successfully"));
+            return ResponseEntity.ok(new LikeResponse(postId, newLikeCount, "Post liked successfully"));
         } catch (ResourceNotFoundException e) {
             logger.warn("Failed to like post: {}", e.getMessage());
             throw e;
@@ -144,16 +211,15 @@ public class PostController {
 
     @DeleteMapping("/{postId}/like")
     public ResponseEntity<LikeResponse> unlikePost(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long postId
     ) throws ResourceNotFoundException {
         try {
-            Post post = postService.unlikePost(postId, currentUser.getId());
-            int newLikeCount = postService.getLikeCount(postId);
+            int newLikeCount = postService.unlikePost(postId, currentUser.getId());
 
             logger.info("User {} is unliking post {}", currentUser.getUsername(), postId);
 
-            return ResponseEntity.ok(new LikeResponse(post.getId(), newLikeCount, "Post unliked successfully"));
+            return ResponseEntity.ok(new LikeResponse(postId, newLikeCount, "Post unliked successfully"));
         } catch (ResourceNotFoundException e) {
             logger.warn("Failed to unlike post: {}", e.getMessage());
             throw e;
@@ -162,26 +228,51 @@ public class PostController {
 
     @GetMapping("/{postId}/status")
     public ResponseEntity<ApiResponse> isLikedByUser(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long postId
     ) {
         boolean isLiked = postService.hasUserLikedPost(currentUser.getId(), postId);
         return ResponseEntity.ok(new ApiResponse(isLiked, "Liked status"));
     }
 
+    @GetMapping("/status")
+    public ResponseEntity<LikeStatusesResponse> getLikeStatuses(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam @Size(max = CursorPage.MAX_SIZE, message = "At most 100 post IDs per request") List<Long> postIds
+    ) {
+        Set<Long> liked = postService.getLikedPostIds(currentUser.getId(), postIds);
+        Map<Long, Boolean> statuses = postIds.stream()
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), liked::contains));
+
+        return ResponseEntity.ok(new LikeStatusesResponse(currentUser.getId(), statuses));
+    }
+
+    @GetMapping("/{postId}/comments")
+    public ResponseEntity<CursorPage<CommentDetailsResponse>> getComments(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) throws ResourceNotFoundException {
+        logger.info("Retrieving comments for post: {}, size: {}", postId, size);
+
+        CursorPage<Comment> comments = postService.getComments(postId, Cursor.decodeOrStart(cursor), CursorPage.normalizeSize(size));
+        return ResponseEntity.ok(comments.map(dataConvertor::toCommentDto));
+    }
+
     @PostMapping("/{postId}/comment")
     public ResponseEntity<CommentResponse> addComment(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long postId,
             @Valid @RequestBody CommentRequest commentRequest
     ) throws ResourceNotFoundException {
         logger.info("User {} is adding comment to post {}", currentUser.getUsername(), postId);
 
         try {
-            Post post = postService.addComment(currentUser.getId(), postId, commentRequest.getContent());
+            Comment comment = postService.addComment(currentUser.getId(), postId, commentRequest.getContent());
             int newCommentCount = postService.getCommentCount(postId);
 
-            return ResponseEntity.ok(new CommentResponse(post.getId(), newCommentCount, dataConvertor.toPostDto(post)));
+            return ResponseEntity.ok(new CommentResponse(postId, newCommentCount, dataConvertor.toCommentDto(comment)));
         } catch (ResourceNotFoundException e) {
             logger.warn("Failed to add comment: {}", e.getMessage());
             throw e;
@@ -190,17 +281,17 @@ public class PostController {
 
     @DeleteMapping("/{postId}/comment/{commentId}")
     public ResponseEntity<CommentResponse> removeComment(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long postId,
             @PathVariable Long commentId
     ) throws ResourceNotFoundException {
         logger.info("User {} is removing comment to post {}", currentUser.getUsername(), postId);
 
         try {
-            Post post = postService.removeComment(currentUser.getId(), postId, commentId);
+            postService.removeComment(currentUser.getId(), postId, commentId);
             int newCommentCount = postService.getCommentCount(postId);
 
-            return ResponseEntity.ok(new CommentResponse(post.getId(), newCommentCount, dataConvertor.toPostDto(post)));
+            return ResponseEntity.ok(new CommentResponse(postId, newCommentCount, null));
         } catch (ResourceNotFoundException e) {
             logger.warn("Failed to remove comment: {}", e.getMessage());
             throw e;
@@ -0,0 +1,43 @@
+package com.github.leloxo.socialmediaclone.controller;
+
+import com.github.leloxo.socialmediaclone.dto.response.PostDetailsResponse;
+import com.github.leloxo.socialmediaclone.service.PostService;
+import com.github.leloxo.socialmediaclone.service.UserFollowService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sets the viewer dependent flags of post responses. Shared by the controllers that list posts.
+ */
+@Component
+class PostViewerFlags {
+    private final PostService postService;
+    private final UserFollowService userFollowService;
+
+    PostViewerFlags(PostService postService, UserFollowService userFollowService) {
+        this.postService = postService;
+        this.userFollowService = userFollowService;
+    }
+
+    // Viewer flags are computed per request with one query each; the cached posts stay viewer independent
+    void apply(List<PostDetailsResponse> posts, Long userId) {
+        if (posts.isEmpty()) {
+            return;
+        }
+
+        Set<Long> liked = postService.getLikedPostIds(userId, posts.stream()
+                .map(PostDetailsResponse::getId)
+                .collect(Collectors.toList()));
+        Set<Long> followed = userFollowService.getFollowedUserIds(userId, posts.stream()
+                .map(post -> post.getAuthorSummary().getId())
+                .collect(Collectors.toSet()));
+
+        posts.forEach(post -> {
+            post.setLikedByMe(liked.contains(post.getId()));
+            post.setFollowingAuthor(followed.contains(post.getAuthorSummary().getId()));
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.leloxo.socialmediaclone.controller;
+
+import com.github.leloxo.socialmediaclone.dto.DataConvertor;
+import com.github.leloxo.socialmediaclone.dto.response.PostDetailsResponse;
+import com.github.leloxo.socialmediaclone.dto.response.TrendingTagResponse;
+import com.github.leloxo.socialmediaclone.exception.ResourceNotFoundException;
+import com.github.leloxo.socialmediaclone.model.Post;
+import com.github.leloxo.socialmediaclone.model.UserPrincipal;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.pagination.CursorPage;
+import com.github.leloxo.socialmediaclone.service.PostService;
+import com.github.leloxo.socialmediaclone.service.TrendingTagService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/tags")
+public class TagController {
+    private final PostService postService;
+    private final TrendingTagService trendingTagService;
+    private final PostViewerFlags postViewerFlags;
+    private final DataConvertor dataConvertor;
+
+    public TagController(PostService postService, TrendingTagService trendingTagService, PostViewerFlags postViewerFlags, DataConvertor dataConvertor) {
+        this.postService = postService;
+        this.trendingTagService = trendingTagService;
+        this.postViewerFlags = postViewerFlags;
+        this.dataConvertor = dataConvertor;
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingTagResponse>> getTrendingTags(
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "10") int limit
+    ) throws ResourceNotFoundException {
+        return ResponseEntity.ok(dataConvertor.toTrendingTagDtoList(
+                trendingTagService.getTrending(window, CursorPage.normalizeSize(limit))));
+    }
+
+    @GetMapping("/{tag}/posts")
+    public ResponseEntity<CursorPage<PostDetailsResponse>> getPostsByTag(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @PathVariable String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) throws ResourceNotFoundException {
+        CursorPage<Post> posts = postService.getPostsByTag(tag, Cursor.decodeOrStart(cursor), CursorPage.normalizeSize(size));
+
+        CursorPage<PostDetailsResponse> postDtos = dataConvertor.toPostSummaryDtoPage(posts);
+        postViewerFlags.apply(postDtos.getItems(), currentUser.getId());
+        return ResponseEntity.ok(postDtos);
+    }
+}
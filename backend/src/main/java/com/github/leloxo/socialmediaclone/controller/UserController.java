@@ -4,14 +4,26 @@ import com.github.leloxo.socialmediaclone.dto.DataConvertor;
 import com.github.leloxo.socialmediaclone.dto.request.UpdateUserDetailsRequest;
 import com.github.leloxo.socialmediaclone.dto.response.ApiResponse;
 import com.github.leloxo.socialmediaclone.dto.response.UserDetailsResponse;
+import com.github.leloxo.socialmediaclone.dto.response.UserSuggestionResponse;
+import com.github.leloxo.socialmediaclone.dto.response.UserSummaryResponse;
 import com.github.leloxo.socialmediaclone.exception.ResourceNotFoundException;
 import com.github.leloxo.socialmediaclone.exception.UnauthorizedException;
 import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.model.UserPrincipal;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.pagination.CursorPage;
+import com.github.leloxo.socialmediaclone.repository.UserSearchEntry;
+import com.github.leloxo.socialmediaclone.service.FollowSuggestion;
+import com.github.leloxo.socialmediaclone.service.FollowSuggestionService;
+import com.github.leloxo.socialmediaclone.service.UserExportService;
 import com.github.leloxo.socialmediaclone.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,24 +31,50 @@ import java.util.List;
 @RestController
 public class UserController {
     private final UserService userService;
+    private final FollowSuggestionService followSuggestionService;
+    private final UserExportService userExportService;
     private final DataConvertor dataConvertor;
 
-    public UserController(UserService userService, DataConvertor dataConvertor) {
+    public UserController(UserService userService, FollowSuggestionService followSuggestionService, UserExportService userExportService, DataConvertor dataConvertor) {
         this.userService = userService;
+        this.followSuggestionService = followSuggestionService;
+        this.userExportService = userExportService;
         this.dataConvertor = dataConvertor;
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDetailsResponse>> allUsers() {
-        List<User> users = userService.allUsers();
-        return ResponseEntity.ok(dataConvertor.toUserDtoList(users));
+    public ResponseEntity<CursorPage<UserDetailsResponse>> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        CursorPage<User> users = userService.getUsers(Cursor.decodeOrStart(cursor), CursorPage.normalizeSize(size));
+        return ResponseEntity.ok(users.map(dataConvertor::toUserDto));
+    }
+
+    // Every user as one JSON array, written while the rows are read; administrators only
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.json\"")
+                .body(userExportService::export);
     }
 
     @GetMapping("/me")
     public ResponseEntity<UserDetailsResponse> authenticatedUser(
-            @AuthenticationPrincipal User currentUser
+            @AuthenticationPrincipal UserPrincipal currentUser
+    ) throws ResourceNotFoundException {
+        User user = userService.findUserById(currentUser.getId());
+        return ResponseEntity.ok(dataConvertor.toUserDto(user));
+    }
+
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<UserSuggestionResponse>> getSuggestions(
+            @AuthenticationPrincipal UserPrincipal currentUser
     ) {
-        return ResponseEntity.ok(dataConvertor.toUserDto(currentUser));
+        List<FollowSuggestion> suggestions = followSuggestionService.getSuggestions(currentUser.getId());
+        List<User> users = userService.findUsersByIds(suggestions.stream().map(FollowSuggestion::getUserId).toList());
+        return ResponseEntity.ok(dataConvertor.toSuggestionDtoList(suggestions, users));
     }
 
     @GetMapping("/{username}")
@@ -56,17 +94,18 @@ public class UserController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<UserDetailsResponse>> searchUsers(
-            @RequestParam("username") String username
+    public ResponseEntity<List<UserSummaryResponse>> searchUsers(
+            @RequestParam("username") String username,
+            @RequestParam(defaultValue = "10") int limit
     ) {
-        List<User> users = userService.findUsersByUserName(username);
-        return ResponseEntity.ok(dataConvertor.toUserDtoList(users));
+        List<UserSearchEntry> users = userService.searchUsers(username, CursorPage.normalizeSize(limit));
+        return ResponseEntity.ok(users.stream().map(dataConvertor::toUserSummaryDto).toList());
     }
 
     // TODO: expand UpdateUserDetailsRequest with fields to update
     @PutMapping("/{userId}")
     public ResponseEntity<UserDetailsResponse> updateUser(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long userId,
             @Valid @RequestBody UpdateUserDetailsRequest updatedUserDetails
     ) throws ResourceNotFoundException {
@@ -4,18 +4,28 @@ import com.github.leloxo.socialmediaclone.dto.DataConvertor;
 import com.github.leloxo.socialmediaclone.dto.response.*;
 import com.github.leloxo.socialmediaclone.exception.ResourceNotFoundException;
 import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.model.UserPrincipal;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.pagination.CursorPage;
+import com.github.leloxo.socialmediaclone.repository.FollowSummary;
 import com.github.leloxo.socialmediaclone.service.UserFollowService;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Validated
 @RestController
 @RequestMapping("/follows")
 public class UserFollowController {
-    // TODO: Add pagination to get follower/following
-
     private final UserFollowService userFollowService;
     private final DataConvertor dataConvertor;
 
@@ -26,7 +36,7 @@ public class UserFollowController {
 
     @PostMapping("/{targetUserId}")
     public ResponseEntity<ApiResponse> followUser(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long targetUserId
     ) throws ResourceNotFoundException {
         userFollowService.followUser(currentUser.getId(), targetUserId);
@@ -35,7 +45,7 @@ public class UserFollowController {
 
     @DeleteMapping("/{targetUserId}")
     public ResponseEntity<ApiResponse> unfollowUser(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long targetUserId
     ) throws ResourceNotFoundException {
         userFollowService.unfollowUser(currentUser.getId(), targetUserId);
@@ -44,7 +54,7 @@ public class UserFollowController {
 
     @GetMapping("/followers")
     public ResponseEntity<FollowersResponse> getFollowers(
-            @AuthenticationPrincipal User currentUser
+            @AuthenticationPrincipal UserPrincipal currentUser
     ) throws ResourceNotFoundException {
         List<User> followers = userFollowService.getFollowers(currentUser.getId());
         List<UserSummaryResponse> followerDtos = dataConvertor.toUserSummaryDtoList(followers);
@@ -54,7 +64,7 @@ public class UserFollowController {
 
     @GetMapping("/following")
     public ResponseEntity<FollowingResponse> getFollowing(
-            @AuthenticationPrincipal User currentUser
+            @AuthenticationPrincipal UserPrincipal currentUser
     ) throws ResourceNotFoundException {
         List<User> following = userFollowService.getFollowing(currentUser.getId());
         List<UserSummaryResponse> followingDtos = dataConvertor.toUserSummaryDtoList(following);
@@ -82,6 +92,56 @@ public class UserFollowController {
         return ResponseEntity.ok(new UserFollowersResponse(userId, followerDtos, followerDtos.size()));
     }
 
+    @GetMapping("/user/{userId}/mutual")
+    public ResponseEntity<MutualFollowersResponse> getMutualFollowers(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "3") int limit
+    ) throws ResourceNotFoundException {
+        Page<User> mutual = userFollowService.getMutualFollowers(currentUser.getId(), userId, CursorPage.normalizeSize(limit));
+        List<UserSummaryResponse> followerDtos = dataConvertor.toUserSummaryDtoList(mutual.getContent());
+
+        return ResponseEntity.ok(new MutualFollowersResponse(userId, followerDtos, (int) mutual.getTotalElements()));
+    }
+
+    @GetMapping("/followers/cursor")
+    public ResponseEntity<CursorPage<UserSummaryResponse>> getFollowersWithCursor(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) throws ResourceNotFoundException {
+        return getUserFollowersWithCursor(currentUser.getId(), cursor, size);
+    }
+
+    @GetMapping("/following/cursor")
+    public ResponseEntity<CursorPage<UserSummaryResponse>> getFollowingWithCursor(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) throws ResourceNotFoundException {
+        return getUserFollowingWithCursor(currentUser.getId(), cursor, size);
+    }
+
+    @GetMapping("/user/{userId}/followers/cursor")
+    public ResponseEntity<CursorPage<UserSummaryResponse>> getUserFollowersWithCursor(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) throws ResourceNotFoundException {
+        CursorPage<FollowSummary> followers = userFollowService.getFollowers(userId, Cursor.decodeOrStart(cursor), CursorPage.normalizeSize(size));
+        return ResponseEntity.ok(followers.map(dataConvertor::toUserSummaryDto));
+    }
+
+    @GetMapping("/user/{userId}/following/cursor")
+    public ResponseEntity<CursorPage<UserSummaryResponse>> getUserFollowingWithCursor(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) throws ResourceNotFoundException {
+        CursorPage<FollowSummary> following = userFollowService.getFollowing(userId, Cursor.decodeOrStart(cursor), CursorPage.normalizeSize(size));
+        return ResponseEntity.ok(following.map(dataConvertor::toUserSummaryDto));
+    }
+
     @GetMapping("/followers/count/{userId}")
     public ResponseEntity<FollowerCountResponse> getFollowersCount(
             @PathVariable Long userId
@@ -102,11 +162,24 @@ public class UserFollowController {
 
     @GetMapping("/status/{targetUserId}")
     public ResponseEntity<FollowStatusResponse> getFollowStatus(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserPrincipal currentUser,
             @PathVariable Long targetUserId
     ) throws ResourceNotFoundException {
         boolean isFollowing = userFollowService.isFollowing(currentUser.getId(), targetUserId);
 
         return ResponseEntity.ok(new FollowStatusResponse(isFollowing, currentUser.getId(), targetUserId));
     }
+
+    @GetMapping("/status")
+    public ResponseEntity<FollowStatusesResponse> getFollowStatuses(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam @Size(max = CursorPage.MAX_SIZE, message = "At most 100 user IDs per request") List<Long> userIds
+    ) {
+        Set<Long> followed = userFollowService.getFollowedUserIds(currentUser.getId(), userIds);
+        Map<Long, Boolean> statuses = userIds.stream()
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), followed::contains));
+
+        return ResponseEntity.ok(new FollowStatusesResponse(currentUser.getId(), statuses));
+    }
 }
@@ -4,14 +4,29 @@ import com.github.leloxo.socialmediaclone.dto.response.*;
 import com.github.leloxo.socialmediaclone.model.Comment;
 import com.github.leloxo.socialmediaclone.model.Post;
 import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.pagination.CursorPage;
+import com.github.leloxo.socialmediaclone.repository.FollowSummary;
+import com.github.leloxo.socialmediaclone.repository.PostCounts;
+import com.github.leloxo.socialmediaclone.repository.UserSearchEntry;
+import com.github.leloxo.socialmediaclone.service.FollowSuggestion;
+import com.github.leloxo.socialmediaclone.service.PostCounterService;
+import com.github.leloxo.socialmediaclone.service.TrendingTag;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
 public class DataConvertor {
+    private final PostCounterService postCounterService;
+
+    public DataConvertor(PostCounterService postCounterService) {
+        this.postCounterService = postCounterService;
+    }
 
     public UserDetailsResponse toUserDto(User user) {
         return new UserDetailsResponse(
@@ -22,25 +37,12 @@ public class DataConvertor {
                 user.getCreatedAt(),
                 user.getUpdatedAt(),
                 user.getProfileImageUrl(),
-                user.getBiography()
+                user.getBiography(),
+                user.getFollowerCount(),
+                user.getFollowingCount()
         );
     }
 
-    public List<UserDetailsResponse> toUserDtoList(List<User> users) {
-        return users.stream()
-                .map(user -> new UserDetailsResponse(
-                        user.getId(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        user.getDisplayUsername(),
-                        user.getCreatedAt(),
-                        user.getUpdatedAt(),
-                        user.getProfileImageUrl(),
-                        user.getBiography()
-                ))
-                .collect(Collectors.toList());
-    }
-
     public UserSummaryResponse toUserSummaryDto(User user) {
         return new UserSummaryResponse(
                 user.getId(),
@@ -49,6 +51,22 @@ public class DataConvertor {
         );
     }
 
+    public UserSummaryResponse toUserSummaryDto(FollowSummary follow) {
+        return new UserSummaryResponse(
+                follow.getUserId(),
+                follow.getUserName(),
+                follow.getProfileImageUrl()
+        );
+    }
+
+    public UserSummaryResponse toUserSummaryDto(UserSearchEntry entry) {
+        return new UserSummaryResponse(
+                entry.getId(),
+                entry.getUserName(),
+                entry.getProfileImageUrl()
+        );
+    }
+
     public List<UserSummaryResponse> toUserSummaryDtoList(List<User> users) {
         return users.stream()
                 .map(user -> new UserSummaryResponse(
@@ -59,39 +77,106 @@ public class DataConvertor {
                 .collect(Collectors.toList());
     }
 
+    // Keeps the ranking order; suggested users that were deleted or deactivated since ranking are dropped
+    public List<UserSuggestionResponse> toSuggestionDtoList(List<FollowSuggestion> suggestions, Collection<User> users) {
+        Map<Long, User> usersById = users.stream()
+                .filter(User::isEnabled)
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return suggestions.stream()
+                .filter(suggestion -> usersById.containsKey(suggestion.getUserId()))
+                .map(suggestion -> {
+                    User user = usersById.get(suggestion.getUserId());
+                    return new UserSuggestionResponse(
+                            user.getId(),
+                            user.getDisplayUsername(),
+                            user.getProfileImageUrl(),
+                            suggestion.getMutualCount()
+                    );
+                })
+                .collect(Collectors.toList());
+    }
+
+    public List<TrendingTagResponse> toTrendingTagDtoList(List<TrendingTag> tags) {
+        return tags.stream()
+                .map(tag -> new TrendingTagResponse(tag.getTag(), tag.getCount()))
+                .collect(Collectors.toList());
+    }
+
     public PostDetailsResponse toPostDto(Post post) {
+        return toPostDto(post, post.getComments());
+    }
+
+    // Posts of list pages come without comments; the details endpoint returns the latest ones.
+    // The counts of a whole page are read at once
+    public List<PostDetailsResponse> toPostSummaryDtoList(List<Post> posts) {
+        Map<Long, PostCounts> counts = postCounterService.getCounts(posts);
+        return posts.stream()
+                .map(post -> toPostDto(post, List.of(), counts.get(post.getId())))
+                .collect(Collectors.toList());
+    }
+
+    public Page<PostDetailsResponse> toPostSummaryDtoPage(Page<Post> posts) {
+        Map<Long, PostCounts> counts = postCounterService.getCounts(posts.getContent());
+        return posts.map(post -> toPostDto(post, List.of(), counts.get(post.getId())));
+    }
+
+    public CursorPage<PostDetailsResponse> toPostSummaryDtoPage(CursorPage<Post> posts) {
+        Map<Long, PostCounts> counts = postCounterService.getCounts(posts.getItems());
+        return posts.map(post -> toPostDto(post, List.of(), counts.get(post.getId())));
+    }
+
+    // Used where only part of the comments was loaded; commentCount still reports the total
+    public PostDetailsResponse toPostDto(Post post, Collection<Comment> comments) {
+        return toPostDto(post, comments, counts(post));
+    }
+
+    private PostDetailsResponse toPostDto(Post post, Collection<Comment> comments, PostCounts counts) {
         return new PostDetailsResponse(
                 post.getId(),
                 post.getImageUrl(),
                 post.getCaption(),
                 post.getCreatedAt(),
                 toUserSummaryDto(post.getAuthor()),
-                toCommentDtoList(post.getComments()),
-                post.getLikeCount(),
-                post.getCommentCount()
+                toCommentDtoList(comments),
+                counts.getLikeCount(),
+                counts.getCommentCount(),
+                null,
+                null
         );
     }
 
-    public List<CommentDetailsResponse> toCommentDtoList(Set<Comment> comments) {
+    public List<CommentDetailsResponse> toCommentDtoList(Collection<Comment> comments) {
         return comments.stream()
-                .map(comment -> new CommentDetailsResponse(
-                        comment.getId(),
-                        comment.getContent(),
-                        comment.getCreatedAt(),
-                        toUserSummaryDto(comment.getAuthor())
-                ))
+                .map(this::toCommentDto)
                 .collect(Collectors.toList());
     }
 
+    public CommentDetailsResponse toCommentDto(Comment comment) {
+        return new CommentDetailsResponse(
+                comment.getId(),
+                comment.getContent(),
+                comment.getCreatedAt(),
+                toUserSummaryDto(comment.getAuthor())
+        );
+    }
+
     public PostFeedResponse toFeedDto(Post post) {
+        PostCounts counts = counts(post);
         return new PostFeedResponse(
                 post.getId(),
                 post.getImageUrl(),
                 post.getCaption(),
                 post.getCreatedAt(),
                 toUserSummaryDto(post.getAuthor()),
-                post.getCommentCount(),
-                post.getLikeCount()
+                counts.getCommentCount(),
+                counts.getLikeCount(),
+                null,
+                null
         );
     }
+
+    private PostCounts counts(Post post) {
+        return postCounterService.getCounts(List.of(post)).get(post.getId());
+    }
 }
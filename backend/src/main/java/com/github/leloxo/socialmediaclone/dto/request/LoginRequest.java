@@ -3,6 +3,7 @@ package com.github.leloxo.socialmediaclone.dto.request;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
@@ -19,4 +20,8 @@ public class LoginRequest {
 //            message = "Password must contain one uppercase, one lowercase, and one number."
 //    )
     private String password;
+
+    // Identifies the client's refresh tokens; generated when the client does not send one
+    @Size(max = 64, message = "Device id must be at most 64 characters long.")
+    private String deviceId;
 }
@@ -0,0 +1,10 @@
+package com.github.leloxo.socialmediaclone.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+    @NotEmpty(message = "Refresh token is required.")
+    private String refreshToken;
+}
@@ -10,6 +10,6 @@ import lombok.NoArgsConstructor;
 public class CommentResponse {
     private long postId;
     private int commentCount;
-//    private String message;
-    private PostDetailsResponse postDetails;
+    // The created comment; null when a comment was removed
+    private CommentDetailsResponse comment;
 }
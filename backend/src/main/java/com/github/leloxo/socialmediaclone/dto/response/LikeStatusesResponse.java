@@ -0,0 +1,15 @@
+package com.github.leloxo.socialmediaclone.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LikeStatusesResponse {
+    private Long userId;
+    private Map<Long, Boolean> liked;
+}
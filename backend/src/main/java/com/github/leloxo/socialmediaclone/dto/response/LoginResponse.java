@@ -6,5 +6,8 @@ import lombok.Data;
 public class LoginResponse {
     private String token;
     private long expiresIn;
+    private String refreshToken;
+    private long refreshExpiresIn;
+    private String deviceId;
     private String username;
 }
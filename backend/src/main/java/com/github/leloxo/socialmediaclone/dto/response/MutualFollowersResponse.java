@@ -0,0 +1,17 @@
+package com.github.leloxo.socialmediaclone.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MutualFollowersResponse {
+    private Long userId;
+    // The first few of the mutual followers; count covers all of them
+    private List<UserSummaryResponse> followers;
+    private int count;
+}
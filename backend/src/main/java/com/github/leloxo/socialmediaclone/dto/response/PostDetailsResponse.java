@@ -19,4 +19,7 @@ public class PostDetailsResponse {
     private List<CommentDetailsResponse> comments;
     private int likeCount;
     private int commentCount;
+    // Viewer specific, filled per request; null where not computed
+    private Boolean likedByMe;
+    private Boolean followingAuthor;
 }
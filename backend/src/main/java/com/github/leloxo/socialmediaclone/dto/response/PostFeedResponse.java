@@ -17,4 +17,7 @@ public class PostFeedResponse {
     private UserSummaryResponse authorSummary;
     private int commentCount;
     private int likeCount;
+    // Viewer specific, filled per request; null where not computed
+    private Boolean likedByMe;
+    private Boolean followingAuthor;
 }
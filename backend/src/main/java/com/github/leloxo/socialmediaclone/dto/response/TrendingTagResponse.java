@@ -0,0 +1,13 @@
+package com.github.leloxo.socialmediaclone.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrendingTagResponse {
+    private String tag;
+    private long count;
+}
@@ -18,4 +18,6 @@ public class UserDetailsResponse {
     private LocalDateTime updatedAt;
     private String profileImageUrl;
     private String biography;
+    private long followerCount;
+    private long followingCount;
 }
@@ -0,0 +1,15 @@
+package com.github.leloxo.socialmediaclone.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSuggestionResponse {
+    private Long id;
+    private String userName;
+    private String profileImageUrl;
+    private int mutualCount;
+}
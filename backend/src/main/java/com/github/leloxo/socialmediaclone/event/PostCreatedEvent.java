@@ -0,0 +1,15 @@
+package com.github.leloxo.socialmediaclone.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class PostCreatedEvent {
+    private final Long postId;
+    private final Long authorId;
+    private final String caption;
+    private final LocalDateTime createdAt;
+}
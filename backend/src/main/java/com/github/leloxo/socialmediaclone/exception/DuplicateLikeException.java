@@ -1,7 +0,0 @@
-package com.github.leloxo.socialmediaclone.exception;
-
-public class DuplicateLikeException extends RuntimeException {
-    public DuplicateLikeException(String message) {
-        super(message);
-    }
-}
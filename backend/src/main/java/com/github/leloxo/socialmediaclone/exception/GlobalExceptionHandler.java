@@ -67,6 +67,17 @@ public class GlobalExceptionHandler {
         return errorDetail;
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail handleInvalidCursor(InvalidCursorException ex) {
+        logger.warn("Invalid cursor: {}", ex.getMessage());
+
+        ProblemDetail errorDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        errorDetail.setTitle("Invalid Cursor");
+        errorDetail.setProperty("timestamp", Instant.now());
+
+        return errorDetail;
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ProblemDetail resourceNotFoundException(ResourceNotFoundException ex) {
         logger.warn("Resource not found: {}", ex.getMessage());
@@ -203,24 +214,23 @@ public class GlobalExceptionHandler {
         return errorDetail;
     }
 
-    @ExceptionHandler(MaxUploadSizeExceededException.class)
-    public ProblemDetail handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex) {
-        logger.error("Image upload failed: {}", ex.getMessage());
+    @ExceptionHandler(ServiceBusyException.class)
+    public ProblemDetail handleServiceBusyException(ServiceBusyException ex) {
+        logger.warn("Service busy: {}", ex.getMessage());
 
-        ProblemDetail errorDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Maximum image size exceeded");
-        errorDetail.setTitle("Max Upload Size Exceeded");
+        ProblemDetail errorDetail = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        errorDetail.setTitle("Service Busy");
         errorDetail.setProperty("timestamp", Instant.now());
 
         return errorDetail;
     }
 
-    // Handle user action exception
-    @ExceptionHandler(DuplicateLikeException.class)
-    public ProblemDetail handleDuplicateLikeException(DuplicateLikeException ex) {
-        logger.warn("Duplicate Like: {}", ex.getMessage());
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ProblemDetail handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex) {
+        logger.error("Image upload failed: {}", ex.getMessage());
 
-        ProblemDetail errorDetail = ProblemDetail.forStatusAndDetail(HttpStatus.UNAUTHORIZED, "User has already liked this post");
-        errorDetail.setTitle("Duplicate Like");
+        ProblemDetail errorDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Maximum image size exceeded");
+        errorDetail.setTitle("Max Upload Size Exceeded");
         errorDetail.setProperty("timestamp", Instant.now());
 
         return errorDetail;
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @Setter
 @Table(indexes = {
         @Index(name = "idx_comment_created_at", columnList = "created_at"),
-        @Index(name = "idx_comment_post_id", columnList = "post_id"),
+        @Index(name = "idx_comment_post_created_at", columnList = "post_id, created_at, id"),
         @Index(name = "idx_comment_author_id", columnList = "author_id")
 })
 public class Comment {
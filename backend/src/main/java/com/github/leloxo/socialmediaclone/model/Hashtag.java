@@ -0,0 +1,44 @@
+package com.github.leloxo.socialmediaclone.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A hashtag in normalized form, see {@code Hashtags.normalize}. Rows are created the first time
+ * a caption uses the tag and never deleted.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "hashtag",
+        uniqueConstraints = @UniqueConstraint(name = "uk_hashtag_name", columnNames = "name")
+)
+public class Hashtag {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @CreationTimestamp
+    @Column(updatable = false, name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Hashtag)) return false;
+        Hashtag hashtag = (Hashtag) o;
+        return id != null && id.equals(hashtag.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -15,7 +15,8 @@ import java.util.Set;
 @Setter
 @Table(indexes = {
         @Index(name = "idx_post_created_at", columnList = "created_at"),
-        @Index(name = "idx_post_author_id", columnList = "author_id")
+        @Index(name = "idx_post_author_id", columnList = "author_id"),
+        @Index(name = "idx_post_author_created_at", columnList = "author_id, created_at, id")
 })
 public class Post {
     @Id
@@ -46,28 +47,13 @@ public class Post {
     @ToString.Exclude
     private Set<PostLike> likes = new HashSet<>();
 
-    @Column(name = "comment_count")
+    // Counters are only changed through PostCounterService's SQL updates, never by saving the entity
+    @Column(name = "comment_count", updatable = false)
     private int commentCount = 0;
 
-    @Column(name = "like_count")
+    @Column(name = "like_count", updatable = false)
     private int likeCount = 0;
 
-    public void incrementCommentCount() {
-        this.commentCount++;
-    }
-
-    public void decrementCommentCount() {
-        this.commentCount--;
-    }
-
-    public void incrementLikeCount() {
-        this.likeCount++;
-    }
-
-    public void decrementLikeCount() {
-        this.likeCount--;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
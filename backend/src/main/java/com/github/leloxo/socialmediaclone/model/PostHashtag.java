@@ -0,0 +1,55 @@
+package com.github.leloxo.socialmediaclone.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Links a post to a hashtag used in its caption. Carries the post's creation time so that a
+ * tag's posts are paged newest first from the index alone, without joining {@code post}.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "post_hashtag",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"hashtag_id", "post_id"}),
+        indexes = {
+                @Index(name = "idx_post_hashtag_tag_created_at", columnList = "hashtag_id, post_created_at, post_id"),
+                @Index(name = "idx_post_hashtag_post_id", columnList = "post_id"),
+                @Index(name = "idx_post_hashtag_created_at", columnList = "post_created_at")
+        }
+)
+public class PostHashtag {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    @ToString.Exclude
+    private Post post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hashtag_id", nullable = false)
+    @ToString.Exclude
+    private Hashtag hashtag;
+
+    @Column(name = "post_created_at", nullable = false)
+    private LocalDateTime postCreatedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PostHashtag)) return false;
+        PostHashtag postHashtag = (PostHashtag) o;
+        return id != null && id.equals(postHashtag.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.leloxo.socialmediaclone.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "revoked_token",
+        indexes = {
+                @Index(name = "idx_revoked_token_created_at", columnList = "created_at"),
+                @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at")
+        }
+)
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", unique = true, nullable = false, length = 64)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Set in UTC by the service, the same clock the revocation sync polls with
+    @Column(updatable = false, nullable = false, name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RevokedToken)) return false;
+        RevokedToken revokedToken = (RevokedToken) o;
+        return id != null && id.equals(revokedToken.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
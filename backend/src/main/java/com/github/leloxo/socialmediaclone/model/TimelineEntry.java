@@ -0,0 +1,61 @@
+package com.github.leloxo.socialmediaclone.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * One post ID in a user's precomputed home timeline. Entries are written by the
+ * fan-out in {@code TimelineService} and carry the post's author and creation time
+ * so that reads and pruning never have to join the {@code post} table.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "timeline_entry",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "post_id"}),
+        indexes = {
+                @Index(name = "idx_timeline_user_created_at", columnList = "user_id, post_created_at, post_id"),
+                @Index(name = "idx_timeline_user_author", columnList = "user_id, author_id"),
+                @Index(name = "idx_timeline_post_id", columnList = "post_id")
+        }
+)
+public class TimelineEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    @ToString.Exclude
+    private Post post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "author_id", nullable = false)
+    @ToString.Exclude
+    private User author;
+
+    @Column(name = "post_created_at", nullable = false)
+    private LocalDateTime postCreatedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TimelineEntry)) return false;
+        TimelineEntry entry = (TimelineEntry) o;
+        return id != null && id.equals(entry.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
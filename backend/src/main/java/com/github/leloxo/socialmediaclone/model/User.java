@@ -7,7 +7,6 @@ import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -22,10 +21,11 @@ import java.util.Set;
         name = "user",
         indexes = {
             @Index(name = "idx_user_name", columnList = "user_name"),
-            @Index(name = "idx_user_email", columnList = "email")
+            @Index(name = "idx_user_email", columnList = "email"),
+            @Index(name = "idx_user_created_at", columnList = "created_at, id")
         }
 )
-public class User implements UserDetails {
+public class User implements UserPrincipal {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -82,6 +82,13 @@ public class User implements UserDetails {
     @Column(name = "is_active", nullable = false)
     private Boolean active = true;
 
+    // Changed only by the SQL updates in UserFollowService and FollowCountReconciler, never by saving the entity
+    @Column(name = "follower_count", updatable = false)
+    private long followerCount = 0;
+
+    @Column(name = "following_count", updatable = false)
+    private long followingCount = 0;
+
     // Spring Security
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -99,6 +106,7 @@ public class User implements UserDetails {
         return email;
     }
 
+    @Override
     public String getDisplayUsername() {
         return userName;
     }
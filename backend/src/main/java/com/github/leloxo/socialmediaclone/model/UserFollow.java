@@ -12,7 +12,11 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Table(name = "user_follows",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"follower_id", "following_id"})
+        uniqueConstraints = @UniqueConstraint(columnNames = {"follower_id", "following_id"}),
+        indexes = {
+                @Index(name = "idx_user_follows_following_created_at", columnList = "following_id, created_at, id"),
+                @Index(name = "idx_user_follows_follower_created_at", columnList = "follower_id, created_at, id")
+        }
 )
 public class UserFollow {
     @Id
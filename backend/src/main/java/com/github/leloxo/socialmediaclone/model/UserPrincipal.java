@@ -0,0 +1,14 @@
+package com.github.leloxo.socialmediaclone.model;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * The authenticated user as seen by controllers. Implemented by the {@link User} entity and by
+ * the lightweight principal built from JWT claims, so handlers do not depend on how the
+ * request was authenticated.
+ */
+public interface UserPrincipal extends UserDetails {
+    Long getId();
+
+    String getDisplayUsername();
+}
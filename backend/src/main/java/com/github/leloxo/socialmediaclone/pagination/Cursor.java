@@ -0,0 +1,51 @@
+package com.github.leloxo.socialmediaclone.pagination;
+
+import com.github.leloxo.socialmediaclone.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Position in a list ordered by {@code (createdAt DESC, id DESC)}. Clients only ever see the
+ * opaque {@link #encode() encoded} form and pass it back to fetch the rows after it.
+ */
+@Getter
+@AllArgsConstructor
+public class Cursor {
+    // Sorts after every stored row, so the first page uses the same keyset predicate as all others
+    private static final Cursor START = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public static Cursor start() {
+        return START;
+    }
+
+    public static Cursor decodeOrStart(String encoded) {
+        return encoded == null || encoded.isBlank() ? START : decode(encoded);
+    }
+
+    public static Cursor decode(String encoded) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = value.split(":");
+            String[] instant = parts[0].split("\\.");
+
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+                    Long.parseLong(instant[0]), Integer.parseInt(instant[1]), ZoneOffset.UTC);
+            return new Cursor(createdAt, Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor: " + encoded);
+        }
+    }
+
+    public String encode() {
+        String value = createdAt.toEpochSecond(ZoneOffset.UTC) + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
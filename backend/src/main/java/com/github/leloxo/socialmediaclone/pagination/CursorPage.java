@@ -0,0 +1,49 @@
+package com.github.leloxo.socialmediaclone.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One slice of a keyset-paginated list. Unlike a {@code Page} it carries no total count,
+ * so fetching it never needs a {@code COUNT} query.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public static int normalizeSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public static <T> CursorPage<T> empty() {
+        return new CursorPage<>(List.of(), null);
+    }
+
+    /**
+     * Builds a page from up to {@code size + 1} fetched keys: the extra key only signals
+     * that another page exists and is not part of the result.
+     */
+    public static <T> CursorPage<T> of(List<T> items, List<Cursor> keys, int size) {
+        String nextCursor = keys.size() > size ? keys.get(size - 1).encode() : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> converter) {
+        List<R> converted = items.stream()
+                .map(converter)
+                .collect(Collectors.toList());
+        return new CursorPage<>(converted, nextCursor);
+    }
+}
@@ -1,7 +1,38 @@
 package com.github.leloxo.socialmediaclone.repository;
 
 import com.github.leloxo.socialmediaclone.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    // Keyset query on idx_comment_post_created_at; only the to-one author is fetched, so the limit stays in SQL
+    @Query("""
+        SELECT c FROM Comment c
+        JOIN FETCH c.author
+        WHERE c.post.id = :postId
+          AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))
+        ORDER BY c.createdAt DESC, c.id DESC
+        """)
+    List<Comment> findByPostIdBefore(@Param("postId") Long postId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    // Ownership and post membership are part of the predicate, so 0 means there was nothing to delete
+    @Modifying
+    @Transactional
+    @Query("""
+        DELETE FROM Comment c
+        WHERE c.id = :commentId AND c.post.id = :postId AND c.author.id = :authorId
+        """)
+    int deleteByIdAndPostIdAndAuthorId(@Param("commentId") Long commentId,
+                                       @Param("postId") Long postId,
+                                       @Param("authorId") Long authorId);
 }
@@ -0,0 +1,10 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+/**
+ * A single follow as a pair of user IDs, for loading many adjacency lists in one query.
+ */
+public interface FollowEdge {
+    Long getFollowerId();
+
+    Long getFollowingId();
+}
@@ -0,0 +1,19 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of one side of a follow: the user's summary columns plus the {@code (createdAt, id)}
+ * of the follow row, which is the key the follower and following lists are paged by.
+ */
+public interface FollowSummary {
+    Long getFollowId();
+
+    LocalDateTime getFollowedAt();
+
+    Long getUserId();
+
+    String getUserName();
+
+    String getProfileImageUrl();
+}
@@ -0,0 +1,31 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import com.github.leloxo.socialmediaclone.model.Hashtag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
+    @Query("SELECT h.id FROM Hashtag h WHERE h.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+    @Query("SELECT h.name FROM Hashtag h WHERE h.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    // Concurrent posts introducing the same tag both succeed; the unique name keeps one row
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT IGNORE INTO hashtag (name, created_at)
+        VALUES (:name, CURRENT_TIMESTAMP)
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+}
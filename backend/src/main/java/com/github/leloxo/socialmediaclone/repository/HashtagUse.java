@@ -0,0 +1,17 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One use of a hashtag by a post, as replayed into the trending counters on startup.
+ */
+@Getter
+@AllArgsConstructor
+public class HashtagUse {
+    private final Long id;
+    private final String tag;
+    private final LocalDateTime postCreatedAt;
+}
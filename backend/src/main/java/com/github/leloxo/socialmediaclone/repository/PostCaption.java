@@ -0,0 +1,18 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns the caption search index needs, loaded through a constructor expression instead
+ * of whole {@code Post} entities.
+ */
+@Getter
+@AllArgsConstructor
+public class PostCaption {
+    private final Long id;
+    private final String caption;
+    private final LocalDateTime createdAt;
+}
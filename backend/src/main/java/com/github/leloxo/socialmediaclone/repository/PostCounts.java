@@ -0,0 +1,15 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Like and comment count of one post, loaded for a whole page through a constructor expression.
+ */
+@Getter
+@AllArgsConstructor
+public class PostCounts {
+    private final Long id;
+    private final int likeCount;
+    private final int commentCount;
+}
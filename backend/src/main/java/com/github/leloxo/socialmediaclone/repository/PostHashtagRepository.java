@@ -0,0 +1,58 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import com.github.leloxo.socialmediaclone.model.PostHashtag;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostHashtagRepository extends JpaRepository<PostHashtag, Long> {
+    // Links the post to all of its tags in one statement; the tags must exist already
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT IGNORE INTO post_hashtag (post_id, hashtag_id, post_created_at)
+        SELECT :postId, h.id, :createdAt FROM hashtag h
+        WHERE h.name IN :names
+        """, nativeQuery = true)
+    int insertForPost(@Param("postId") Long postId,
+                      @Param("createdAt") LocalDateTime createdAt,
+                      @Param("names") Collection<String> names);
+
+    @Query("""
+        SELECT new com.github.leloxo.socialmediaclone.pagination.Cursor(ph.postCreatedAt, ph.post.id) FROM PostHashtag ph
+        WHERE ph.hashtag.id = :hashtagId
+          AND (ph.postCreatedAt < :createdAt OR (ph.postCreatedAt = :createdAt AND ph.post.id < :postId))
+        ORDER BY ph.postCreatedAt DESC, ph.post.id DESC
+        """)
+    List<Cursor> findKeysByHashtagIdBefore(@Param("hashtagId") Long hashtagId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("postId") Long postId,
+                                           Pageable pageable);
+
+    // Walks the uses in a time range in (postCreatedAt, id) order, starting after the given use
+    @Query("""
+        SELECT new com.github.leloxo.socialmediaclone.repository.HashtagUse(ph.id, ph.hashtag.name, ph.postCreatedAt) FROM PostHashtag ph
+        WHERE (ph.postCreatedAt > :createdAt OR (ph.postCreatedAt = :createdAt AND ph.id > :id))
+          AND ph.postCreatedAt < :until
+        ORDER BY ph.postCreatedAt, ph.id
+        """)
+    List<HashtagUse> findUsesAfter(@Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   @Param("until") LocalDateTime until,
+                                   Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostHashtag ph WHERE ph.post.id = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
@@ -1,11 +1,36 @@
 package com.github.leloxo.socialmediaclone.repository;
 
 import com.github.leloxo.socialmediaclone.model.PostLike;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
     boolean existsByPostIdAndUserId(Long postId, Long userId);
-    Optional<PostLike> findByPostIdAndUserId(Long postId, Long userId);
+
+    @Query("SELECT l.post.id FROM PostLike l WHERE l.user.id = :userId ORDER BY l.post.id")
+    List<Long> findPostIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT l.post.id FROM PostLike l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    // Relies on the unique (post_id, user_id) constraint; returns 0 if the like already exists or the post does not
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT IGNORE INTO post_likes (post_id, user_id, created_at)
+        SELECT p.id, :userId, CURRENT_TIMESTAMP FROM post p WHERE p.id = :postId
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostLike l WHERE l.post.id = :postId AND l.user.id = :userId")
+    int deleteByPostIdAndUserId(@Param("postId") Long postId, @Param("userId") Long userId);
 }
@@ -1,6 +1,7 @@
 package com.github.leloxo.socialmediaclone.repository;
 
 import com.github.leloxo.socialmediaclone.model.Post;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,50 +9,91 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    // Paged queries select IDs only; JOIN FETCH of a collection combined with a limit
+    // would make Hibernate load every matching row and paginate in memory.
     @Query(value = """
-        SELECT p FROM Post p
-        LEFT JOIN FETCH p.author
-        LEFT JOIN FETCH p.comments c
-        LEFT JOIN FETCH c.author
+        SELECT p.id FROM Post p
         WHERE p.author.userName = :username
         """, countQuery = """
-        SELECT COUNT(DISTINCT p) FROM Post p
+        SELECT COUNT(p) FROM Post p
         WHERE p.author.userName = :username
         """)
-    Page<Post> findByAuthorUserNameWithDetails(String username, Pageable pageable);
+    Page<Long> findIdsByAuthorUserName(@Param("username") String username, Pageable pageable);
 
+    // Comments are not fetched here; post details only show the newest ones, see CommentRepository
     @Query("""
         SELECT p FROM Post p
         LEFT JOIN FETCH p.author
-        LEFT JOIN FETCH p.comments c
-        LEFT JOIN FETCH c.author
         WHERE p.id = :postId
         """)
-    Optional<Post> findByIdWithDetails(Long postId);
+    Optional<Post> findByIdWithAuthor(@Param("postId") Long postId);
+
+    @Query("SELECT p.author.userName FROM Post p WHERE p.id = :postId")
+    Optional<String> findAuthorUserNameById(@Param("postId") Long postId);
 
     @Query(" SELECT p.likeCount FROM Post p WHERE p.id = :postId")
-    int findLikeCountById(@Param("postId") Long postId);
+    Integer findLikeCountById(@Param("postId") Long postId);
 
     @Query("SELECT p.commentCount FROM Post p WHERE p.id = :postId")
-    int findCommentCountById(@Param("postId") Long postId);
+    Integer findCommentCountById(@Param("postId") Long postId);
 
-    // TODO: are joins necessary?
-    @Query(value = """
-        SELECT DISTINCT p
-        FROM Post p
+    @Query("""
+        SELECT new com.github.leloxo.socialmediaclone.repository.PostCounts(p.id, p.likeCount, p.commentCount) FROM Post p
+        WHERE p.id IN :postIds
+        """)
+    List<PostCounts> findCountsByIdIn(@Param("postIds") Collection<Long> postIds);
+
+    // List pages show only the comment count, so their comments are never fetched
+    @Query("""
+        SELECT p FROM Post p
         LEFT JOIN FETCH p.author
-        LEFT JOIN FETCH p.comments c
-        LEFT JOIN FETCH c.author
+        WHERE p.id IN :postIds
+        """)
+    List<Post> findAllWithAuthorByIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @Query(value = """
+        SELECT p.id FROM Post p
         WHERE p.author.id IN :authorIds
-        ORDER BY p.createdAt DESC
         """, countQuery = """
-        SELECT COUNT(DISTINCT p) FROM Post p
+        SELECT COUNT(p) FROM Post p
         WHERE p.author.id IN :authorIds
         """)
-    Page<Post> findByAuthorIdsIn(@Param("authorIds") List<Long> authorIds, Pageable pageable);
+    Page<Long> findIdsByAuthorIdIn(@Param("authorIds") List<Long> authorIds, Pageable pageable);
+
+    // Keyset queries return the (createdAt, id) key of each row, ordered like the index they run on
+    @Query("""
+        SELECT new com.github.leloxo.socialmediaclone.pagination.Cursor(p.createdAt, p.id) FROM Post p
+        WHERE p.author.userName = :username
+          AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<Cursor> findKeysByAuthorUserNameBefore(@Param("username") String username,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query("""
+        SELECT new com.github.leloxo.socialmediaclone.pagination.Cursor(p.createdAt, p.id) FROM Post p
+        WHERE p.author.id IN :authorIds
+          AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<Cursor> findKeysByAuthorIdInBefore(@Param("authorIds") List<Long> authorIds,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    @Query("""
+        SELECT new com.github.leloxo.socialmediaclone.repository.PostCaption(p.id, p.caption, p.createdAt) FROM Post p
+        WHERE p.id > :afterId
+        ORDER BY p.id
+        """)
+    List<PostCaption> findCaptionsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
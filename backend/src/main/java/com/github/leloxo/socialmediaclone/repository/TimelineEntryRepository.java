@@ -0,0 +1,105 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import com.github.leloxo.socialmediaclone.model.TimelineEntry;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+    @Query(value = """
+        SELECT t.post.id FROM TimelineEntry t
+        WHERE t.user.id = :userId
+        ORDER BY t.postCreatedAt DESC, t.post.id DESC
+        """, countQuery = """
+        SELECT COUNT(t) FROM TimelineEntry t
+        WHERE t.user.id = :userId
+        """)
+    Page<Long> findPostIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+        SELECT new com.github.leloxo.socialmediaclone.pagination.Cursor(t.postCreatedAt, t.post.id) FROM TimelineEntry t
+        WHERE t.user.id = :userId
+          AND (t.postCreatedAt < :createdAt OR (t.postCreatedAt = :createdAt AND t.post.id < :postId))
+        ORDER BY t.postCreatedAt DESC, t.post.id DESC
+        """)
+    List<Cursor> findKeysByUserIdBefore(@Param("userId") Long userId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("postId") Long postId,
+                                        Pageable pageable);
+
+    @Query("""
+        SELECT t FROM TimelineEntry t
+        WHERE t.user.id = :userId
+        ORDER BY t.postCreatedAt DESC, t.post.id DESC
+        """)
+    List<TimelineEntry> findEntriesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Fan-out of a single post to a batch of users; duplicates are skipped by the (user_id, post_id) constraint
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT IGNORE INTO timeline_entry (user_id, post_id, author_id, post_created_at)
+        SELECT u.id, :postId, :authorId, :createdAt FROM user u
+        WHERE u.id IN :userIds
+        """, nativeQuery = true)
+    int insertForUsers(@Param("postId") Long postId,
+                       @Param("authorId") Long authorId,
+                       @Param("createdAt") LocalDateTime createdAt,
+                       @Param("userIds") List<Long> userIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT IGNORE INTO timeline_entry (user_id, post_id, author_id, post_created_at)
+        SELECT :userId, p.id, p.author_id, p.created_at FROM post p
+        WHERE p.author_id = :authorId
+        ORDER BY p.created_at DESC, p.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    int insertRecentPostsOfAuthor(@Param("userId") Long userId,
+                                  @Param("authorId") Long authorId,
+                                  @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT IGNORE INTO timeline_entry (user_id, post_id, author_id, post_created_at)
+        SELECT :userId, p.id, p.author_id, p.created_at FROM post p
+        WHERE p.author_id = :userId
+           OR p.author_id IN (SELECT uf.following_id FROM user_follows uf WHERE uf.follower_id = :userId)
+        ORDER BY p.created_at DESC, p.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    int rebuildForUser(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.post.id = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.user.id = :userId AND t.author.id = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Transactional
+    @Query("""
+        DELETE FROM TimelineEntry t
+        WHERE t.user.id = :userId
+          AND (t.postCreatedAt < :createdAt OR (t.postCreatedAt = :createdAt AND t.post.id <= :postId))
+        """)
+    int deleteOlderThan(@Param("userId") Long userId,
+                        @Param("createdAt") LocalDateTime createdAt,
+                        @Param("postId") Long postId);
+}
@@ -2,18 +2,37 @@ package com.github.leloxo.socialmediaclone.repository;
 
 import com.github.leloxo.socialmediaclone.model.User;
 import com.github.leloxo.socialmediaclone.model.UserFollow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface UserFollowRepository extends JpaRepository<UserFollow, Long> {
     boolean existsByFollowerIdAndFollowingId(Long followerId, Long followingId);
 
-    void deleteByFollowerIdAndFollowingId(Long followerId, Long followingId);
+    @Query("SELECT uf.following.id FROM UserFollow uf WHERE uf.follower.id = :followerId AND uf.following.id IN :userIds")
+    List<Long> findFollowedIds(@Param("followerId") Long followerId, @Param("userIds") Collection<Long> userIds);
+
+    // Following twice is a no-op; the unique (follower_id, following_id) pair keeps one row
+    @Modifying
+    @Query(value = """
+        INSERT IGNORE INTO user_follows (follower_id, following_id, created_at)
+        VALUES (:followerId, :followingId, :createdAt)
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("followerId") Long followerId,
+                       @Param("followingId") Long followingId,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("DELETE FROM UserFollow uf WHERE uf.follower.id = :followerId AND uf.following.id = :followingId")
+    int deleteByFollowerIdAndFollowingId(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
 
     @Query("SELECT uf.follower FROM UserFollow uf WHERE uf.following.id = :followingId")
     List<User> findFollowersByFollowingId(@Param("followingId") Long followingId);
@@ -21,12 +40,73 @@ public interface UserFollowRepository extends JpaRepository<UserFollow, Long> {
     @Query("SELECT uf.follower.id FROM UserFollow uf WHERE uf.following.id = :followingId")
     List<Long> findFollowerIdsByFollowingId(@Param("followingId") Long followingId);
 
+    @Query("""
+        SELECT uf.follower.id FROM UserFollow uf
+        WHERE uf.following.id = :followingId AND uf.follower.id > :afterId
+        ORDER BY uf.follower.id
+        """)
+    List<Long> findFollowerIdsByFollowingIdAfter(@Param("followingId") Long followingId,
+                                                 @Param("afterId") Long afterId,
+                                                 Pageable pageable);
+
     @Query("SELECT uf.following FROM UserFollow uf WHERE uf.follower.id = :followerId")
     List<User> findFollowingByFollowerId(@Param("followerId") Long followerId);
 
     @Query("SELECT uf.following.id FROM UserFollow uf WHERE uf.follower.id = :followerId")
     List<Long> findFollowingIdsByFollowerId(@Param("followerId") Long followerId);
 
+    // Bounded variants for loading the follow graph; one row past the limit marks a list as too large
+    @Query("SELECT uf.following.id FROM UserFollow uf WHERE uf.follower.id = :followerId")
+    List<Long> findFollowingIdsByFollowerId(@Param("followerId") Long followerId, Pageable pageable);
+
+    @Query("SELECT uf.follower.id FROM UserFollow uf WHERE uf.following.id = :followingId")
+    List<Long> findFollowerIdsByFollowingId(@Param("followingId") Long followingId, Pageable pageable);
+
+    // Following lists of many users at once; users following more than maxEdges accounts are skipped by their counter
+    @Query("""
+        SELECT uf.follower.id AS followerId, uf.following.id AS followingId
+        FROM UserFollow uf JOIN uf.follower f
+        WHERE f.id IN :followerIds AND f.followingCount <= :maxEdges
+        """)
+    List<FollowEdge> findFollowingEdgesByFollowerIds(@Param("followerIds") Collection<? extends Long> followerIds,
+                                                     @Param("maxEdges") long maxEdges);
+
+    // Keyset queries over the (user, created_at, id) indexes, newest follow first; only summary columns are selected
+    @Query("""
+        SELECT uf.id AS followId, uf.createdAt AS followedAt,
+               u.id AS userId, u.userName AS userName, u.profileImageUrl AS profileImageUrl
+        FROM UserFollow uf JOIN uf.follower u
+        WHERE uf.following.id = :userId
+          AND (uf.createdAt < :createdAt OR (uf.createdAt = :createdAt AND uf.id < :id))
+        ORDER BY uf.createdAt DESC, uf.id DESC
+        """)
+    List<FollowSummary> findFollowerSummariesBefore(@Param("userId") Long userId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
+
+    @Query("""
+        SELECT uf.id AS followId, uf.createdAt AS followedAt,
+               u.id AS userId, u.userName AS userName, u.profileImageUrl AS profileImageUrl
+        FROM UserFollow uf JOIN uf.following u
+        WHERE uf.follower.id = :userId
+          AND (uf.createdAt < :createdAt OR (uf.createdAt = :createdAt AND uf.id < :id))
+        ORDER BY uf.createdAt DESC, uf.id DESC
+        """)
+    List<FollowSummary> findFollowingSummariesBefore(@Param("userId") Long userId,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    // Followers of userId that viewerId follows, for lists too large for the follow graph
+    @Query("""
+        SELECT uf.follower.id FROM UserFollow uf
+        WHERE uf.following.id = :userId
+          AND uf.follower.id IN (SELECT v.following.id FROM UserFollow v WHERE v.follower.id = :viewerId)
+        ORDER BY uf.follower.id
+        """)
+    List<Long> findMutualFollowerIds(@Param("viewerId") Long viewerId, @Param("userId") Long userId);
+
     long countByFollowerId(Long followerId);
     long countByFollowingId(Long followingId);
 }
@@ -1,9 +1,15 @@
 package com.github.leloxo.socialmediaclone.repository;
 
 import com.github.leloxo.socialmediaclone.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,5 +17,72 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByUserName(String username);
-    List<User> findByUserNameContainingIgnoreCase(String userName);
+
+    boolean existsByUserName(String username);
+
+    // Keyset walk over idx_user_name; reads only the index
+    @Query("SELECT u.userName FROM User u WHERE u.userName > :afterUserName ORDER BY u.userName")
+    List<String> findUserNamesAfter(@Param("afterUserName") String afterUserName, Pageable pageable);
+
+    @Query("""
+        SELECT new com.github.leloxo.socialmediaclone.repository.UserSearchEntry(
+            u.id, u.userName, u.firstName, u.lastName, u.profileImageUrl)
+        FROM User u WHERE u.id > :afterId AND u.active = true ORDER BY u.id
+        """)
+    List<UserSearchEntry> findSearchEntriesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Served by idx_user_name; the column collation makes the match case-insensitive on MySQL
+    @Query("""
+        SELECT new com.github.leloxo.socialmediaclone.repository.UserSearchEntry(
+            u.id, u.userName, u.firstName, u.lastName, u.profileImageUrl)
+        FROM User u WHERE u.userName LIKE CONCAT(:prefix, '%') ESCAPE '!' AND u.active = true ORDER BY u.userName
+        """)
+    List<UserSearchEntry> findSearchEntriesByUserNamePrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query("SELECT u.active FROM User u WHERE u.id = :userId")
+    Optional<Boolean> findActiveById(@Param("userId") Long userId);
+
+    @Query("SELECT u.followerCount FROM User u WHERE u.id = :userId")
+    Optional<Long> findFollowerCountById(@Param("userId") Long userId);
+
+    @Query("SELECT u.followingCount FROM User u WHERE u.id = :userId")
+    Optional<Long> findFollowingCountById(@Param("userId") Long userId);
+
+    // Locks both sides of a follow in ascending id order, so concurrent follows between the same users cannot deadlock
+    @Query(value = "SELECT id FROM user WHERE id IN (:followerId, :followingId) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockFollowPair(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+
+    // Moves both counters of a follow in one statement, which updates the two rows in primary key order
+    @Modifying
+    @Query("""
+        UPDATE User u SET
+            u.followerCount = u.followerCount + CASE WHEN u.id = :followingId THEN :delta ELSE 0 END,
+            u.followingCount = u.followingCount + CASE WHEN u.id = :followerId THEN :delta ELSE 0 END
+        WHERE u.id IN (:followerId, :followingId)
+        """)
+    int addFollowCounts(@Param("followerId") Long followerId, @Param("followingId") Long followingId, @Param("delta") long delta);
+
+    // Keyset page of the user directory over idx_user_created_at, newest first
+    @Query("""
+        SELECT u FROM User u
+        WHERE u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)
+        ORDER BY u.createdAt DESC, u.id DESC
+        """)
+    List<User> findUsersBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Recounts the users in (afterId, upToId] and rewrites only rows that drifted; returns how many were repaired
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE User u SET
+            u.followerCount = (SELECT COUNT(f) FROM UserFollow f WHERE f.following.id = u.id),
+            u.followingCount = (SELECT COUNT(f) FROM UserFollow f WHERE f.follower.id = u.id)
+        WHERE u.id > :afterId AND u.id <= :upToId
+          AND (u.followerCount <> (SELECT COUNT(f) FROM UserFollow f WHERE f.following.id = u.id)
+            OR u.followingCount <> (SELECT COUNT(f) FROM UserFollow f WHERE f.follower.id = u.id))
+        """)
+    int reconcileFollowCounts(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
 }
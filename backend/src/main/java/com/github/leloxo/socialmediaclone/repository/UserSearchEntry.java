@@ -0,0 +1,18 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The columns the username search needs, loaded through a constructor expression instead of
+ * whole {@code User} entities.
+ */
+@Getter
+@AllArgsConstructor
+public class UserSearchEntry {
+    private final Long id;
+    private final String userName;
+    private final String firstName;
+    private final String lastName;
+    private final String profileImageUrl;
+}
@@ -4,52 +4,102 @@ import com.github.leloxo.socialmediaclone.dto.request.LoginRequest;
 import com.github.leloxo.socialmediaclone.dto.request.RegisterUserRequest;
 import com.github.leloxo.socialmediaclone.model.User;
 import com.github.leloxo.socialmediaclone.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
 @Service
 public class AuthenticationService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final UserSearchIndex userSearchIndex;
+    private final UsernameAvailabilityService usernameAvailabilityService;
+    private final Executor authenticationExecutor;
 
     public AuthenticationService(
             UserRepository userRepository,
             AuthenticationManager authenticationManager,
-            PasswordEncoder passwordEncoder,
-            JwtService jwtService) {
+            PasswordHashingService passwordHashingService,
+            JwtService jwtService,
+            RefreshTokenService refreshTokenService,
+            UserSearchIndex userSearchIndex,
+            UsernameAvailabilityService usernameAvailabilityService,
+            @Qualifier("authenticationExecutor") Executor authenticationExecutor) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.userSearchIndex = userSearchIndex;
+        this.usernameAvailabilityService = usernameAvailabilityService;
+        this.authenticationExecutor = authenticationExecutor;
+    }
+
+    // Only the hashing runs on the hashing pool; saving and indexing continue on the authentication executor
+    public CompletableFuture<User> signup(RegisterUserRequest input) {
+        return passwordHashingService.encode(input.getPassword()).thenApplyAsync(encodedPassword -> {
+            User user = new User();
+            user.setFirstName(input.getFirstName());
+            user.setLastName(input.getLastName());
+            user.setUserName(input.getUserName());
+            user.setEmail(input.getEmail());
+            user.setPassword(encodedPassword);
+            User savedUser = userRepository.save(user);
+            userSearchIndex.index(savedUser);
+            usernameAvailabilityService.onSignup(savedUser.getDisplayUsername());
+            return savedUser;
+        }, authenticationExecutor);
+    }
+
+    // The password check runs on the hashing pool, the returned future completes on the authentication
+    // executor, so what callers chain onto it (issuing tokens) does not hold a hashing worker
+    public CompletableFuture<User> authenticate(LoginRequest input) {
+        return passwordHashingService.submit(() -> {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            input.getEmail(),
+                            input.getPassword()
+                    )
+            );
+            // The provider returns the user it loaded (and rehashed, if the cost factor changed)
+            return (User) authentication.getPrincipal();
+        }).thenApplyAsync(Function.identity(), authenticationExecutor);
     }
 
-    public User signup(RegisterUserRequest input) {
-        User user = new User();
-        user.setFirstName(input.getFirstName());
-        user.setLastName(input.getLastName());
-        user.setUserName(input.getUserName());
-        user.setEmail(input.getEmail());
-        user.setPassword(passwordEncoder.encode(input.getPassword()));
-        return userRepository.save(user);
+    public String issueRefreshToken(User user, String deviceId) {
+        return refreshTokenService.issue(user, deviceId);
     }
 
-    public User authenticate(LoginRequest input) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        input.getEmail(),
-                        input.getPassword()
-                )
-        );
-        return userRepository.findByEmail(input.getEmail()).orElseThrow();
+    // Exchanges a refresh token for a new one without re-checking the password
+    public RefreshTokenService.RotatedToken refresh(String refreshToken) {
+        return refreshTokenService.rotate(refreshToken);
     }
 
-    // TODO:
     public void logout(String token) {
-//        SecurityContextHolder.clearContext();
-        jwtService.invalidateToken(token);
+        Claims claims = jwtService.invalidateToken(token);
+
+        Long userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+        String deviceId = claims.get(JwtService.CLAIM_DEVICE_ID, String.class);
+        if (userId != null && deviceId != null) {
+            refreshTokenService.revokeDevice(userId, deviceId);
+        }
+    }
+
+    public void revokeDevice(Long userId, String deviceId) {
+        refreshTokenService.revokeDevice(userId, deviceId);
+    }
+
+    public long getRefreshExpirationTime() {
+        return refreshTokenService.getExpirationTime();
     }
 }
@@ -0,0 +1,87 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.config.CacheNames;
+import com.github.leloxo.socialmediaclone.config.OwnerIndexedCache;
+import com.github.leloxo.socialmediaclone.config.PageCacheKey;
+import com.github.leloxo.socialmediaclone.util.TransactionHooks;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Evicts cached post reads whose content changed. Paged regions are keyed by
+ * {@link PageCacheKey} and indexed by owner ({@link OwnerIndexedCache}), so evicting an owner
+ * removes every cached page of that owner.
+ * <p>
+ * Inside a transaction the eviction is deferred until after commit; evicting earlier would
+ * let a concurrent read cache the old state again before the change is visible.
+ */
+@Service
+public class CacheInvalidationService {
+    private final CacheManager cacheManager;
+
+    public CacheInvalidationService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void evictPost(Long postId) {
+        evict(CacheNames.POST_DETAILS, postId);
+        evict(CacheNames.POST_LATEST_COMMENTS, postId);
+    }
+
+    public void evictLikeCount(Long postId) {
+        evict(CacheNames.POST_LIKE_COUNT, postId);
+        evict(CacheNames.POST_DETAILS, postId);
+    }
+
+    public void evictCommentCount(Long postId) {
+        evict(CacheNames.POST_COMMENT_COUNT, postId);
+        evict(CacheNames.POST_DETAILS, postId);
+    }
+
+    public void evictUserPosts(String username) {
+        evictOwners(CacheNames.USER_POSTS_BY_NAME, Set.of(username));
+    }
+
+    public void evictFeed(Long userId) {
+        evictOwners(CacheNames.USER_FEED, Set.of(userId));
+    }
+
+    public void evictFeeds(Collection<Long> userIds) {
+        evictOwners(CacheNames.USER_FEED, Set.copyOf(userIds));
+    }
+
+    public void evictSuggestions(Long userId) {
+        evict(CacheNames.USER_SUGGESTIONS, userId);
+    }
+
+    // A deleted post may sit on any number of cached feed pages
+    public void evictAllFeeds() {
+        TransactionHooks.afterCommit(() -> {
+            Cache cache = cacheManager.getCache(CacheNames.USER_FEED);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+
+    private void evict(String cacheName, Object key) {
+        TransactionHooks.afterCommit(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(key);
+            }
+        });
+    }
+
+    private void evictOwners(String cacheName, Set<?> owners) {
+        TransactionHooks.afterCommit(() -> {
+            if (cacheManager.getCache(cacheName) instanceof OwnerIndexedCache cache) {
+                cache.evictOwners(owners);
+            }
+        });
+    }
+}
@@ -0,0 +1,505 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.event.PostCreatedEvent;
+import com.github.leloxo.socialmediaclone.repository.PostCaption;
+import com.github.leloxo.socialmediaclone.repository.PostRepository;
+import com.github.leloxo.socialmediaclone.util.PostingList;
+import com.github.leloxo.socialmediaclone.util.TransactionHooks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory full-text index over post captions.
+ * <p>
+ * Captions are case- and accent-folded and split into words; every word maps to a
+ * {@link PostingList} of the posts containing it. Queries score posts with BM25 and boost
+ * recent posts, so a fresh post can outrank a slightly better match from last year. New posts
+ * are indexed after commit and deleted posts are dropped from the document table at once; their
+ * postings are compacted away on the next maintenance run.
+ * <p>
+ * A periodic catch-up scans posts by ID from the last indexed ID, which builds the index on
+ * startup and picks up posts created on other nodes. The index is written to
+ * {@code posts.search.snapshot-path} periodically and on shutdown and loaded on startup, so a
+ * restart only scans the posts created since the last snapshot.
+ */
+@Service
+public class CaptionSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(CaptionSearchIndex.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x43534958;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final int MAX_QUERY_TERMS = 10;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "in", "is", "it",
+            "its", "of", "on", "or", "so", "that", "the", "this", "to", "was", "with");
+
+    // BM25 term frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final class Document {
+        private final long createdAt;
+        private final int length;
+
+        private Document(long createdAt, int length) {
+            this.createdAt = createdAt;
+            this.length = length;
+        }
+    }
+
+    private final PostRepository postRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${posts.search.enabled:true}")
+    private boolean enabled;
+
+    // A post this old scores half the recency boost of a new one
+    @Value("${posts.search.recency-half-life:7d}")
+    private Duration recencyHalfLife;
+
+    // 0 ranks by relevance only; 1 lets recency at most double a score
+    @Value("${posts.search.recency-weight:1.0}")
+    private double recencyWeight;
+
+    @Value("${posts.search.catch-up-batch-size:1000}")
+    private int catchUpBatchSize;
+
+    // Posts committed out of ID order can land below the last scanned ID, so each scan re-reads this many IDs
+    @Value("${posts.search.catch-up-overlap:1000}")
+    private long catchUpOverlap;
+
+    // Empty disables snapshots; the index is then rebuilt from the database on every start
+    @Value("${posts.search.snapshot-path:data/caption-index.bin}")
+    private String snapshotPath;
+
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+    // Only live posts; deleting a post removes it here and leaves its postings until compaction
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final AtomicLong totalLength = new AtomicLong();
+    // Adds share it; compaction takes it exclusively, so it never sees postings whose document is not stored yet
+    private final ReadWriteLock compactionLock = new ReentrantReadWriteLock();
+    // Every post up to this ID was seen by a catch-up scan
+    private volatile long watermark;
+    private volatile boolean started;
+
+    public CaptionSearchIndex(PostRepository postRepository, MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("posts.search.documents", documents, Map::size)
+                .description("Posts held by the caption search index")
+                .register(meterRegistry);
+        Gauge.builder("posts.search.terms", postings, Map::size)
+                .description("Distinct words in the caption search index")
+                .register(meterRegistry);
+        Gauge.builder("posts.search.memory", this, CaptionSearchIndex::getPostingsSizeInBytes)
+                .description("Approximate heap used by the encoded postings")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the IDs of the best matching posts, best first. Posts match if their caption
+     * contains any of the query words.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query).stream()
+                .distinct()
+                .limit(MAX_QUERY_TERMS)
+                .toList();
+        int documentCount = documents.size();
+        if (!enabled || terms.isEmpty() || documentCount == 0) {
+            return List.of();
+        }
+
+        double averageLength = Math.max(1.0, (double) totalLength.get() / documentCount);
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+
+            // Postings of deleted posts still count here until compaction; the skew is small
+            int documentFrequency = list.size();
+            double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            list.forEach((postId, frequency) -> {
+                Document document = documents.get(postId);
+                if (document == null) {
+                    return;
+                }
+                double norm = K1 * (1 - B + B * document.length / averageLength);
+                scores.merge(postId, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+            });
+        }
+
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        double halfLifeSeconds = Math.max(1, recencyHalfLife.toSeconds());
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+
+        // Min-heap of the best limit posts seen so far
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(limit + 1, ranking);
+        scores.forEach((postId, relevance) -> {
+            Document document = documents.get(postId);
+            if (document == null) {
+                return;
+            }
+            double age = Math.max(0, now - document.createdAt);
+            double score = relevance * (1 + recencyWeight * Math.pow(0.5, age / halfLifeSeconds));
+            best.add(Map.entry(postId, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        });
+
+        List<Long> postIds = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            postIds.add(best.poll().getKey());
+        }
+        Collections.reverse(postIds);
+        return postIds;
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        if (enabled) {
+            add(event.getPostId(), event.getCaption(), event.getCreatedAt());
+        }
+    }
+
+    public void onPostDeleted(Long postId) {
+        if (enabled) {
+            TransactionHooks.afterCommit(() -> remove(postId));
+        }
+    }
+
+    // Indexing a post twice is a no-op, so events and catch-up scans may overlap
+    void add(Long postId, String caption, LocalDateTime createdAt) {
+        if (documents.containsKey(postId)) {
+            return;
+        }
+
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        tokenize(caption).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        if (frequencies.isEmpty()) {
+            return;
+        }
+
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        long created = (createdAt != null ? createdAt : LocalDateTime.now()).toEpochSecond(ZoneOffset.UTC);
+
+        compactionLock.readLock().lock();
+        try {
+            // Postings go in before the document, so searches never see a half-indexed post
+            frequencies.forEach((term, frequency) -> postings.compute(term, (key, list) -> {
+                PostingList target = list != null ? list : new PostingList();
+                target.add(postId, frequency);
+                return target;
+            }));
+
+            if (documents.putIfAbsent(postId, new Document(created, length)) == null) {
+                totalLength.addAndGet(length);
+            }
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    // Also called for posts that were found missing while loading search results
+    public void remove(Long postId) {
+        Document document = documents.remove(postId);
+        if (document != null) {
+            totalLength.addAndGet(-document.length);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${posts.search.catch-up-initial-delay:0}",
+            fixedDelayString = "${posts.search.catch-up-interval:30000}")
+    public synchronized void catchUp() {
+        if (!enabled) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        boolean initial = !started;
+        if (initial) {
+            loadSnapshot();
+            started = true;
+        }
+
+        int scanned = 0;
+        Long afterId = Math.max(0, watermark - catchUpOverlap);
+        while (true) {
+            List<PostCaption> batch = postRepository.findCaptionsAfter(afterId, PageRequest.of(0, catchUpBatchSize));
+            for (PostCaption post : batch) {
+                add(post.getId(), post.getCaption(), post.getCreatedAt());
+            }
+            scanned += batch.size();
+
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+                watermark = Math.max(watermark, afterId);
+            }
+            if (batch.size() < catchUpBatchSize) {
+                break;
+            }
+        }
+
+        if (initial) {
+            logger.info("Caption index caught up to post {} after scanning {} posts in {} ms",
+                    watermark, scanned, System.currentTimeMillis() - startTime);
+        } else {
+            logger.debug("Caption index caught up to post {} after scanning {} posts in {} ms",
+                    watermark, scanned, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${posts.search.snapshot-interval:600000}",
+            fixedDelayString = "${posts.search.snapshot-interval:600000}")
+    public void maintain() {
+        if (!enabled || !started) {
+            return;
+        }
+
+        compact();
+        if (!snapshotPath.isBlank()) {
+            writeSnapshot(Path.of(snapshotPath));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (enabled && started && !snapshotPath.isBlank()) {
+            writeSnapshot(Path.of(snapshotPath));
+        }
+    }
+
+    // Drops the postings of deleted posts and words no live post uses anymore
+    int compact() {
+        compactionLock.writeLock().lock();
+        try {
+            int[] removed = {0};
+            for (String term : postings.keySet()) {
+                postings.computeIfPresent(term, (key, list) -> {
+                    removed[0] += list.retainAll(documents::containsKey);
+                    return list.size() == 0 ? null : list;
+                });
+            }
+            return removed[0];
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the live posts and their postings to a temporary file and moves it over the
+     * snapshot. The watermark is read before the documents and the documents before the
+     * postings; postings added in between are left out, so the snapshot never holds a post
+     * with only part of its words.
+     */
+    synchronized void writeSnapshot(Path path) {
+        long startTime = System.currentTimeMillis();
+        long snapshotWatermark = watermark;
+        Map<Long, Document> snapshotDocuments = new HashMap<>(documents);
+        long[] postIds = snapshotDocuments.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+
+            int terms = 0;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(snapshotWatermark);
+
+                out.writeInt(postIds.length);
+                for (long postId : postIds) {
+                    Document document = snapshotDocuments.get(postId);
+                    out.writeLong(postId);
+                    out.writeLong(document.createdAt);
+                    out.writeInt(document.length);
+                }
+
+                for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                    PostingList live = new PostingList();
+                    entry.getValue().forEach((postId, frequency) -> {
+                        if (Arrays.binarySearch(postIds, postId) >= 0) {
+                            live.add(postId, frequency);
+                        }
+                    });
+                    if (live.size() == 0) {
+                        continue;
+                    }
+
+                    byte[] data = live.toBytes();
+                    out.writeBoolean(true);
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(live.size());
+                    out.writeLong(live.lastId());
+                    out.writeInt(data.length);
+                    out.write(data);
+                    terms++;
+                }
+                out.writeBoolean(false);
+            }
+
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            logger.info("Wrote caption index snapshot with {} posts and {} words in {} ms",
+                    postIds.length, terms, System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            logger.warn("Failed to write caption index snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    // A missing or unreadable snapshot leaves the index as it is and the catch-up scan starts from the first post
+    synchronized boolean loadSnapshot() {
+        if (snapshotPath.isBlank()) {
+            return false;
+        }
+
+        Path path = Path.of(snapshotPath);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+
+        long startTime = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                logger.warn("Ignoring caption index snapshot {} with an unknown format", path);
+                return false;
+            }
+
+            long snapshotWatermark = in.readLong();
+            int documentCount = in.readInt();
+            Map<Long, Document> loadedDocuments = new HashMap<>(documentCount * 2);
+            for (int i = 0; i < documentCount; i++) {
+                loadedDocuments.put(in.readLong(), new Document(in.readLong(), in.readInt()));
+            }
+
+            Map<String, PostingList> loadedPostings = new HashMap<>();
+            while (in.readBoolean()) {
+                String term = in.readUTF();
+                int count = in.readInt();
+                long lastId = in.readLong();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                loadedPostings.put(term, PostingList.fromBytes(data, count, lastId));
+            }
+
+            // Posts created since startup may be indexed already; their postings are merged into the loaded lists
+            loadedPostings.forEach((term, loaded) -> postings.merge(term, loaded, (current, fromSnapshot) -> {
+                current.forEach(fromSnapshot::add);
+                return fromSnapshot;
+            }));
+            loadedDocuments.forEach((postId, document) -> {
+                if (documents.putIfAbsent(postId, document) == null) {
+                    totalLength.addAndGet(document.length);
+                }
+            });
+            watermark = Math.max(watermark, snapshotWatermark);
+
+            logger.info("Loaded caption index snapshot with {} posts up to post {} in {} ms",
+                    documentCount, snapshotWatermark, System.currentTimeMillis() - startTime);
+            return true;
+        } catch (IOException e) {
+            // Nothing was merged yet; posts indexed since startup stay
+            logger.warn("Failed to load caption index snapshot {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    public long getPostingsSizeInBytes() {
+        return postings.values().stream()
+                .mapToLong(PostingList::sizeInBytes)
+                .sum();
+    }
+
+    /**
+     * Splits text into folded words: accents and case are removed, anything that is not a letter
+     * or digit separates words (so "#sunset" is "sunset"), and stop words and one-letter words
+     * are dropped.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = folded.substring(start, i);
+                if (term.length() >= MIN_TERM_LENGTH && term.length() <= MAX_TERM_LENGTH && !STOP_WORDS.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
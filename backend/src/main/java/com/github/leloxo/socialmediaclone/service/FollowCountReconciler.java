@@ -0,0 +1,67 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Repairs drift in the denormalized {@code follower_count} and {@code following_count}
+ * columns, e.g. from rows changed outside the application or from before the columns
+ * existed. Users are recounted in ID ranges, one short transaction per range, and only
+ * rows whose counts differ are rewritten.
+ */
+@Service
+public class FollowCountReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(FollowCountReconciler.class);
+
+    private final UserRepository userRepository;
+    private final Counter repairedCounter;
+
+    @Value("${follows.counts.reconcile-batch-size:1000}")
+    private int batchSize;
+
+    public FollowCountReconciler(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.repairedCounter = Counter.builder("follows.counts.repaired")
+                .description("Users whose follower or following count had drifted")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${follows.counts.reconcile-initial-delay:60000}",
+            fixedDelayString = "${follows.counts.reconcile-interval:3600000}")
+    public void reconcile() {
+        long startTime = System.currentTimeMillis();
+        int repaired = 0;
+
+        Long afterId = 0L;
+        while (true) {
+            List<Long> userIds = userRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+
+            Long upToId = userIds.get(userIds.size() - 1);
+            repaired += userRepository.reconcileFollowCounts(afterId, upToId);
+            afterId = upToId;
+
+            if (userIds.size() < batchSize) {
+                break;
+            }
+        }
+
+        repairedCounter.increment(repaired);
+        if (repaired > 0) {
+            logger.warn("Repaired follow counts of {} users in {} ms", repaired, System.currentTimeMillis() - startTime);
+        } else {
+            logger.debug("Follow counts consistent, checked in {} ms", System.currentTimeMillis() - startTime);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.leloxo.socialmediaclone.repository.FollowEdge;
+import com.github.leloxo.socialmediaclone.repository.UserFollowRepository;
+import com.github.leloxo.socialmediaclone.util.ExpireAfterLoad;
+import com.github.leloxo.socialmediaclone.util.SortedLongArrays;
+import com.github.leloxo.socialmediaclone.util.TransactionHooks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory follow graph: for each recently active user the IDs they follow (forward) and the
+ * IDs following them (reverse), kept as sorted {@code long[]} so membership is a binary search.
+ * <p>
+ * Adjacency lists are loaded lazily per user and direction. Both directions share
+ * {@code follows.graph.max-weight-bytes}, and users with more edges than
+ * {@code follows.graph.max-edges-per-user} in a direction are not indexed in that direction
+ * and fall back to the database. Follows and unfollows update loaded lists after commit; a list
+ * still expires {@code follows.graph.expire-after-write} after it was loaded, however often it is
+ * read or updated, so follows made through other nodes are picked up.
+ */
+@Service
+public class FollowGraph {
+    // Marks an adjacency list too large to index
+    private static final long[] NOT_INDEXED = new long[0];
+
+    private final UserFollowRepository userFollowRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${follows.graph.enabled:true}")
+    private boolean enabled;
+
+    @Value("${follows.graph.max-weight-bytes:67108864}")
+    private long maxWeightBytes;
+
+    @Value("${follows.graph.max-edges-per-user:100000}")
+    private int maxEdgesPerUser;
+
+    @Value("${follows.graph.expire-after-write:5m}")
+    private Duration expireAfterWrite;
+
+    // follower ID -> IDs of the users they follow
+    private Cache<Long, long[]> following;
+    // followed user ID -> IDs of their followers
+    private Cache<Long, long[]> followers;
+    // Bulk loads of following lists currently querying the database
+    private final Set<BulkLoad> bulkLoads = ConcurrentHashMap.newKeySet();
+
+    public FollowGraph(UserFollowRepository userFollowRepository, MeterRegistry meterRegistry) {
+        this.userFollowRepository = userFollowRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        following = newAdjacencyCache();
+        followers = newAdjacencyCache();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, following, "followGraph.following");
+        CaffeineCacheMetrics.monitor(meterRegistry, followers, "followGraph.followers");
+        Gauge.builder("follows.graph.memory", this, FollowGraph::getMemoryUsageBytes)
+                .description("Approximate heap used by the follow graph")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("follows.graph.edges", this, FollowGraph::getLoadedEdgeCount)
+                .description("Edges held by the follow graph, counting each direction once")
+                .register(meterRegistry);
+        Gauge.builder("follows.graph.bytes-per-edge", this, FollowGraph::getBytesPerEdge)
+                .description("Average heap per loaded edge including array headers")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private Cache<Long, long[]> newAdjacencyCache() {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes / 2)
+                .weigher((Long userId, long[] userIds) -> SortedLongArrays.sizeInBytes(userIds))
+                .expireAfter(new ExpireAfterLoad<Long, long[]>(expireAfterWrite))
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isFollowing(Long followerId, Long followingId) {
+        long[] followed = loadFollowing(followerId);
+        if (followed == NOT_INDEXED) {
+            return userFollowRepository.existsByFollowerIdAndFollowingId(followerId, followingId);
+        }
+        return SortedLongArrays.contains(followed, followingId);
+    }
+
+    public Set<Long> filterFollowed(Long followerId, Collection<Long> userIds) {
+        long[] followed = loadFollowing(followerId);
+        if (followed == NOT_INDEXED) {
+            return Set.copyOf(userFollowRepository.findFollowedIds(followerId, userIds));
+        }
+        return userIds.stream()
+                .filter(userId -> SortedLongArrays.contains(followed, userId))
+                .collect(Collectors.toSet());
+    }
+
+    public List<Long> getFollowingIds(Long userId) {
+        long[] followed = loadFollowing(userId);
+        if (followed == NOT_INDEXED) {
+            return userFollowRepository.findFollowingIdsByFollowerId(userId);
+        }
+        return toList(followed);
+    }
+
+    public List<Long> getFollowerIds(Long userId) {
+        long[] followerIds = loadFollowers(userId);
+        if (followerIds == NOT_INDEXED) {
+            return userFollowRepository.findFollowerIdsByFollowingId(userId);
+        }
+        return toList(followerIds);
+    }
+
+    // Followers of userId that viewerId follows, in ascending ID order
+    public long[] getMutualFollowerIds(Long viewerId, Long userId) {
+        long[] followed = loadFollowing(viewerId);
+        long[] followerIds = loadFollowers(userId);
+        if (followed == NOT_INDEXED || followerIds == NOT_INDEXED) {
+            return SortedLongArrays.of(userFollowRepository.findMutualFollowerIds(viewerId, userId));
+        }
+        return SortedLongArrays.intersect(followed, followerIds);
+    }
+
+    /**
+     * Non-empty following lists of many users, loading all missing lists with a single query.
+     * Users whose list is too large to index are left out of the result.
+     */
+    public Map<Long, long[]> getFollowingLists(Collection<Long> userIds) {
+        Map<Long, long[]> lists = new HashMap<>(following.getAllPresent(userIds));
+        Set<Long> missing = new HashSet<>(userIds);
+        missing.removeAll(lists.keySet());
+        if (!missing.isEmpty()) {
+            lists.putAll(loadFollowingLists(missing));
+        }
+        lists.values().removeIf(followed -> followed == NOT_INDEXED);
+        return lists;
+    }
+
+    public void onFollow(Long followerId, Long followingId) {
+        TransactionHooks.afterCommit(() -> update(followerId, followingId, SortedLongArrays::insert));
+    }
+
+    public void onUnfollow(Long followerId, Long followingId) {
+        TransactionHooks.afterCommit(() -> update(followerId, followingId, SortedLongArrays::remove));
+    }
+
+    public long getMemoryUsageBytes() {
+        return weightedSize(following) + weightedSize(followers);
+    }
+
+    public long getLoadedEdgeCount() {
+        return edgeCount(following) + edgeCount(followers);
+    }
+
+    public double getBytesPerEdge() {
+        long edges = getLoadedEdgeCount();
+        return edges == 0 ? 0 : (double) getMemoryUsageBytes() / edges;
+    }
+
+    // Updates only lists that are already loaded; others pick the change up when they are loaded
+    private void update(Long followerId, Long followingId, BiFunction<long[], Long, long[]> change) {
+        // Marked before the update, so a bulk load either sees the mark or caches its list before the update applies
+        bulkLoads.forEach(load -> load.markTouched(followerId));
+        following.asMap().computeIfPresent(followerId, (id, userIds) ->
+                userIds == NOT_INDEXED ? userIds : change.apply(userIds, followingId));
+        followers.asMap().computeIfPresent(followingId, (id, userIds) ->
+                userIds == NOT_INDEXED ? userIds : change.apply(userIds, followerId));
+    }
+
+    private long[] loadFollowing(Long userId) {
+        return following.get(userId, id -> bounded(
+                userFollowRepository.findFollowingIdsByFollowerId(id, PageRequest.of(0, maxEdgesPerUser + 1))));
+    }
+
+    private long[] loadFollowers(Long userId) {
+        return followers.get(userId, id -> bounded(
+                userFollowRepository.findFollowerIdsByFollowingId(id, PageRequest.of(0, maxEdgesPerUser + 1))));
+    }
+
+    /**
+     * Loads the following lists of many users with one query. A list is only cached if no follow or
+     * unfollow of its user was applied while the query ran, since the query may not have seen it;
+     * such lists are reloaded one by one instead.
+     */
+    private Map<Long, long[]> loadFollowingLists(Set<Long> userIds) {
+        BulkLoad load = new BulkLoad(userIds);
+        bulkLoads.add(load);
+        try {
+            Map<Long, List<Long>> edges = new HashMap<>();
+            for (FollowEdge edge : userFollowRepository.findFollowingEdgesByFollowerIds(userIds, maxEdgesPerUser)) {
+                edges.computeIfAbsent(edge.getFollowerId(), id -> new ArrayList<>()).add(edge.getFollowingId());
+            }
+
+            // Users the query skipped follow nobody or too many to index; neither is cached from here
+            Map<Long, long[]> lists = new HashMap<>();
+            edges.forEach((userId, followed) -> {
+                long[] loaded = bounded(followed);
+                long[] cached = following.asMap().compute(userId, (id, current) ->
+                        current != null || load.isTouched(id) ? current : loaded);
+                lists.put(userId, cached != null ? cached : loadFollowing(userId));
+            });
+            return lists;
+        } finally {
+            bulkLoads.remove(load);
+        }
+    }
+
+    private long[] bounded(List<Long> userIds) {
+        return userIds.size() > maxEdgesPerUser ? NOT_INDEXED : SortedLongArrays.of(userIds);
+    }
+
+    private static List<Long> toList(long[] userIds) {
+        return Arrays.stream(userIds).boxed().collect(Collectors.toList());
+    }
+
+    private static long weightedSize(Cache<Long, long[]> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private static long edgeCount(Cache<Long, long[]> cache) {
+        return cache.asMap().values().stream()
+                .mapToLong(userIds -> userIds.length)
+                .sum();
+    }
+
+    // Users of one bulk load that had their following list changed while it ran
+    private static final class BulkLoad {
+        private final Set<Long> userIds;
+        private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+
+        BulkLoad(Set<Long> userIds) {
+            this.userIds = userIds;
+        }
+
+        void markTouched(Long userId) {
+            if (userIds.contains(userId)) {
+                touched.add(userId);
+            }
+        }
+
+        boolean isTouched(Long userId) {
+            return touched.contains(userId);
+        }
+    }
+}
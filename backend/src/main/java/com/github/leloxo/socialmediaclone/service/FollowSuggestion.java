@@ -0,0 +1,14 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A suggested user and how many of the accounts the requesting user follows already follow them.
+ */
+@Getter
+@AllArgsConstructor
+public class FollowSuggestion {
+    private final Long userId;
+    private final int mutualCount;
+}
@@ -0,0 +1,164 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.config.CacheNames;
+import com.github.leloxo.socialmediaclone.util.SortedLongArrays;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * "People you may know": users followed by the accounts a user follows, ranked by how many of
+ * those accounts follow them.
+ * <p>
+ * The 2-hop neighbourhood is walked on a fork/join pool. The user's following list is split
+ * into batches, and each batch takes its following lists from the {@link FollowGraph}, which
+ * loads all missing lists of a batch with one query. Only the best
+ * {@code follows.suggestions.limit} candidates are kept, in a bounded heap, and results are
+ * cached per user in the {@code userSuggestions} region, whose time to live is the refresh interval.
+ */
+@Service
+public class FollowSuggestionService {
+    private static final Logger logger = LoggerFactory.getLogger(FollowSuggestionService.class);
+
+    // Most mutual connections first; lower IDs (older accounts) win ties
+    private static final Comparator<FollowSuggestion> RANKING = Comparator
+            .comparingInt(FollowSuggestion::getMutualCount).reversed()
+            .thenComparing(FollowSuggestion::getUserId);
+
+    private final FollowGraph followGraph;
+    private final ForkJoinPool suggestionPool;
+
+    @Value("${follows.suggestions.limit:20}")
+    private int limit;
+
+    @Value("${follows.suggestions.batch-size:500}")
+    private int batchSize;
+
+    // Users following more accounts are walked through a random sample of this size
+    @Value("${follows.suggestions.max-sampled-following:5000}")
+    private int maxSampledFollowing;
+
+    public FollowSuggestionService(FollowGraph followGraph, @Qualifier("suggestionPool") ForkJoinPool suggestionPool) {
+        this.followGraph = followGraph;
+        this.suggestionPool = suggestionPool;
+    }
+
+    @Cacheable(value = CacheNames.USER_SUGGESTIONS, key = "#userId")
+    public List<FollowSuggestion> getSuggestions(Long userId) {
+        long startTime = System.currentTimeMillis();
+
+        long[] followed = SortedLongArrays.of(followGraph.getFollowingIds(userId));
+        if (followed.length == 0) {
+            return List.of();
+        }
+
+        long[] sampled = sample(followed);
+        Map<Long, Integer> mutualCounts = suggestionPool.invoke(new MutualCountTask(sampled, 0, sampled.length));
+        List<FollowSuggestion> suggestions = topSuggestions(userId, followed, mutualCounts);
+
+        logger.debug("Ranked {} candidates from {} followed accounts of user {} in {} ms",
+                mutualCounts.size(), followed.length, userId, System.currentTimeMillis() - startTime);
+        return suggestions;
+    }
+
+    private long[] sample(long[] followed) {
+        if (followed.length <= maxSampledFollowing) {
+            return followed;
+        }
+
+        // Partial Fisher-Yates shuffle over a copy; only the first maxSampledFollowing slots are drawn
+        long[] shuffled = followed.clone();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < maxSampledFollowing; i++) {
+            int j = random.nextInt(i, shuffled.length);
+            long swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+        return Arrays.copyOf(shuffled, maxSampledFollowing);
+    }
+
+    private List<FollowSuggestion> topSuggestions(Long userId, long[] followed, Map<Long, Integer> mutualCounts) {
+        // Head is the weakest suggestion kept so far, so each candidate costs O(log limit)
+        PriorityQueue<FollowSuggestion> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        mutualCounts.forEach((candidateId, mutualCount) -> {
+            if (candidateId.equals(userId) || SortedLongArrays.contains(followed, candidateId)) {
+                return;
+            }
+
+            FollowSuggestion candidate = new FollowSuggestion(candidateId, mutualCount);
+            if (top.size() < limit) {
+                top.add(candidate);
+            } else if (RANKING.compare(candidate, top.peek()) < 0) {
+                top.poll();
+                top.add(candidate);
+            }
+        });
+
+        List<FollowSuggestion> suggestions = new ArrayList<>(top);
+        suggestions.sort(RANKING);
+        return suggestions;
+    }
+
+    // Counts, for a slice of the followed accounts, how many of them follow each candidate
+    private class MutualCountTask extends RecursiveTask<Map<Long, Integer>> {
+        private final long[] followed;
+        private final int from;
+        private final int to;
+
+        MutualCountTask(long[] followed, int from, int to) {
+            this.followed = followed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, Integer> compute() {
+            if (to - from <= batchSize) {
+                return countBatch();
+            }
+
+            int middle = (from + to) >>> 1;
+            MutualCountTask left = new MutualCountTask(followed, from, middle);
+            left.fork();
+            Map<Long, Integer> right = new MutualCountTask(followed, middle, to).compute();
+            return merge(left.join(), right);
+        }
+
+        private Map<Long, Integer> countBatch() {
+            List<Long> batch = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                batch.add(followed[i]);
+            }
+
+            Map<Long, Integer> counts = new HashMap<>();
+            for (long[] candidates : followGraph.getFollowingLists(batch).values()) {
+                for (long candidateId : candidates) {
+                    counts.merge(candidateId, 1, Integer::sum);
+                }
+            }
+            return counts;
+        }
+
+        private Map<Long, Integer> merge(Map<Long, Integer> left, Map<Long, Integer> right) {
+            Map<Long, Integer> larger = left.size() >= right.size() ? left : right;
+            Map<Long, Integer> smaller = larger == left ? right : left;
+            smaller.forEach((candidateId, count) -> larger.merge(candidateId, count, Integer::sum));
+            return larger;
+        }
+    }
+}
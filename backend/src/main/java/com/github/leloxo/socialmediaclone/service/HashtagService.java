@@ -0,0 +1,64 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.exception.ResourceNotFoundException;
+import com.github.leloxo.socialmediaclone.model.Post;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.repository.HashtagRepository;
+import com.github.leloxo.socialmediaclone.repository.PostHashtagRepository;
+import com.github.leloxo.socialmediaclone.util.Hashtags;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maintains the {@code hashtag} and {@code post_hashtag} tables: tags are extracted from a
+ * caption when the post is created and unlinked when it is deleted.
+ */
+@Service
+public class HashtagService {
+    private final HashtagRepository hashtagRepository;
+    private final PostHashtagRepository postHashtagRepository;
+
+    public HashtagService(HashtagRepository hashtagRepository, PostHashtagRepository postHashtagRepository) {
+        this.hashtagRepository = hashtagRepository;
+        this.postHashtagRepository = postHashtagRepository;
+    }
+
+    // Called inside the creating transaction, so a rolled back post leaves no links behind
+    public Set<String> tagPost(Post post) {
+        Set<String> tags = Hashtags.extract(post.getCaption());
+        if (tags.isEmpty()) {
+            return tags;
+        }
+
+        // Most tags exist already; only new ones take the insert, in name order so concurrent
+        // posts sharing new tags lock their index entries in the same order and cannot deadlock
+        Set<String> missing = new TreeSet<>(tags);
+        hashtagRepository.findExistingNames(tags).forEach(missing::remove);
+        missing.forEach(hashtagRepository::insertIfAbsent);
+
+        postHashtagRepository.insertForPost(post.getId(), post.getCreatedAt(), tags);
+        return tags;
+    }
+
+    public void onPostDeleted(Long postId) {
+        postHashtagRepository.deleteByPostId(postId);
+    }
+
+    /**
+     * Returns up to {@code limit} keys of the tag's posts after the given cursor, newest first.
+     */
+    public List<Cursor> getPostKeys(String tag, Cursor cursor, int limit) throws ResourceNotFoundException {
+        String name = Hashtags.normalize(tag);
+        Long hashtagId = name == null ? null : hashtagRepository.findIdByName(name).orElse(null);
+        if (hashtagId == null) {
+            throw new ResourceNotFoundException("Hashtag #" + tag + " not found");
+        }
+
+        return postHashtagRepository.findKeysByHashtagIdBefore(
+                hashtagId, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, limit));
+    }
+}
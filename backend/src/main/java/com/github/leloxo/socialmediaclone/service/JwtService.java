@@ -1,30 +1,102 @@
 package com.github.leloxo.socialmediaclone.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.leloxo.socialmediaclone.config.JwtUserPrincipal;
+import com.github.leloxo.socialmediaclone.model.UserPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
+    // Claims that let the authentication filter build the principal without loading the user
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_USERNAME = "uname";
+    public static final String CLAIM_ACTIVE = "active";
+    // Device whose refresh tokens are revoked when this token is logged out
+    public static final String CLAIM_DEVICE_ID = "did";
+
     @Value("${security.jwt.secret-key}")
     private String secretKey;
 
     @Value("${security.jwt.expiration-time}")
     private long jwtExpiration;
 
-    private final Set<String> invalidatedTokens = new HashSet<>();
+    // Maximum number of recently verified tokens whose claims are kept; 0 disables the cache
+    @Value("${security.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private Key signingKey;
+    private JwtParser parser;
 
-    public void invalidateToken(String token) {
-        invalidatedTokens.add(token);
+    // Claims of verified tokens keyed by the SHA-256 digest of the token, each kept until the token expires
+    private Cache<String, Claims> verifiedTokens;
+
+    public JwtService(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new ClaimsExpiry())
+                .build();
+    }
+
+    public Claims invalidateToken(String token) {
+        Claims claims = parseToken(token);
+        tokenRevocationService.revoke(getTokenId(token, claims), claims.getExpiration());
+        return claims;
+    }
+
+    /**
+     * Returns the token's {@code jti}. Tokens issued before the claim was added are identified
+     * by their digest instead.
+     */
+    public String getTokenId(String token, Claims claims) {
+        return claims.getId() != null ? claims.getId() : digest(token);
+    }
+
+    /**
+     * Verifies the token's signature and expiry and returns its claims. Each token is parsed
+     * at most once while it stays in the verified-token cache.
+     */
+    public Claims parseToken(String token) {
+        if (verifiedCacheSize <= 0) {
+            return parser.parseClaimsJws(token).getBody();
+        }
+
+        Claims claims = verifiedTokens.get(digest(token), key -> parser.parseClaimsJws(token).getBody());
+        if (isExpired(claims)) {
+            // Cache expiry is checked lazily; make sure an expired token is never accepted
+            return parser.parseClaimsJws(token).getBody();
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -32,12 +104,40 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return claimsResolver.apply(claims);
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        return generateToken(userDetails, null);
+    }
+
+    public String generateToken(UserDetails userDetails, String deviceId) {
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof UserPrincipal principal) {
+            claims.put(CLAIM_USER_ID, principal.getId());
+            claims.put(CLAIM_USERNAME, principal.getDisplayUsername());
+            claims.put(CLAIM_ACTIVE, principal.isEnabled());
+        }
+        if (deviceId != null) {
+            claims.put(CLAIM_DEVICE_ID, deviceId);
+        }
+        return generateToken(claims, userDetails);
+    }
+
+    /**
+     * Builds the principal from the token's claims. Tokens issued before the claims were
+     * added yield an empty result, and the caller has to load the user instead.
+     */
+    public Optional<JwtUserPrincipal> extractPrincipal(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String username = claims.get(CLAIM_USERNAME, String.class);
+        Boolean active = claims.get(CLAIM_ACTIVE, Boolean.class);
+
+        if (userId == null || username == null || active == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new JwtUserPrincipal(userId, claims.getSubject(), username, active));
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -57,38 +157,51 @@ public class JwtService {
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return !invalidatedTokens.contains(token) &&
-                (username.equals(userDetails.getUsername())) &&
-                !isTokenExpired(token);
+        return isTokenValid(token, parseToken(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token, Claims claims, UserDetails userDetails) {
+        return !tokenRevocationService.isRevoked(getTokenId(token, claims)) &&
+                (claims.getSubject().equals(userDetails.getUsername())) &&
+                !isExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(@NonNull String key, @NonNull Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(@NonNull String key, @NonNull Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(@NonNull String key, @NonNull Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
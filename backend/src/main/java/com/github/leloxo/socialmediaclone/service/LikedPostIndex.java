@@ -0,0 +1,120 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.leloxo.socialmediaclone.repository.PostLikeRepository;
+import com.github.leloxo.socialmediaclone.util.ExpireAfterLoad;
+import com.github.leloxo.socialmediaclone.util.SortedLongArrays;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of the post IDs each recently active user has liked, so like-status checks
+ * do not query the database.
+ * <p>
+ * A user's likes are loaded on first access and kept as a sorted {@code long[]}; the cache is
+ * bounded by the total size of those arrays. Likes and unlikes update loaded entries in place,
+ * but an entry still expires a fixed time after it was loaded, so likes made through other
+ * nodes are picked up within {@code likes.index.expire-after-write}. Users with more likes than
+ * {@code likes.index.max-likes-per-user} are not indexed and always fall back to the database.
+ */
+@Service
+public class LikedPostIndex {
+    // Marks a user with too many likes to index
+    private static final long[] NOT_INDEXED = new long[0];
+
+    private final PostLikeRepository postLikeRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${likes.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${likes.index.max-weight-bytes:67108864}")
+    private long maxWeightBytes;
+
+    @Value("${likes.index.max-likes-per-user:100000}")
+    private int maxLikesPerUser;
+
+    @Value("${likes.index.expire-after-write:5m}")
+    private Duration expireAfterWrite;
+
+    private Cache<Long, long[]> likedPostIds;
+
+    public LikedPostIndex(PostLikeRepository postLikeRepository, MeterRegistry meterRegistry) {
+        this.postLikeRepository = postLikeRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        likedPostIds = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long userId, long[] postIds) -> SortedLongArrays.sizeInBytes(postIds))
+                .expireAfter(new ExpireAfterLoad<Long, long[]>(expireAfterWrite))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, likedPostIds, "likedPostIndex");
+        Gauge.builder("likes.index.memory", this, LikedPostIndex::getMemoryUsageBytes)
+                .description("Approximate heap used by the liked-post index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean hasLiked(Long userId, Long postId) {
+        long[] postIds = load(userId);
+        if (postIds == NOT_INDEXED) {
+            return postLikeRepository.existsByPostIdAndUserId(postId, userId);
+        }
+        return SortedLongArrays.contains(postIds, postId);
+    }
+
+    public Set<Long> filterLiked(Long userId, Collection<Long> postIds) {
+        long[] liked = load(userId);
+        if (liked == NOT_INDEXED) {
+            return Set.copyOf(postLikeRepository.findLikedPostIds(userId, postIds));
+        }
+        return postIds.stream()
+                .filter(postId -> SortedLongArrays.contains(liked, postId))
+                .collect(Collectors.toSet());
+    }
+
+    // Updates only users that are already loaded; others pick the change up when they are loaded
+    public void onLiked(Long userId, Long postId) {
+        likedPostIds.asMap().computeIfPresent(userId, (id, postIds) ->
+                postIds == NOT_INDEXED ? postIds : SortedLongArrays.insert(postIds, postId));
+    }
+
+    public void onUnliked(Long userId, Long postId) {
+        likedPostIds.asMap().computeIfPresent(userId, (id, postIds) ->
+                postIds == NOT_INDEXED ? postIds : SortedLongArrays.remove(postIds, postId));
+    }
+
+    public long getMemoryUsageBytes() {
+        return likedPostIds.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private long[] load(Long userId) {
+        return likedPostIds.get(userId, id -> {
+            List<Long> postIds = postLikeRepository.findPostIdsByUserId(id, PageRequest.of(0, maxLikesPerUser + 1));
+            return postIds.size() > maxLikesPerUser ? NOT_INDEXED : SortedLongArrays.of(postIds);
+        });
+    }
+}
@@ -0,0 +1,285 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.config.CacheNames;
+import com.github.leloxo.socialmediaclone.exception.ResourceNotFoundException;
+import com.github.leloxo.socialmediaclone.model.Post;
+import com.github.leloxo.socialmediaclone.repository.PostCounts;
+import com.github.leloxo.socialmediaclone.repository.PostRepository;
+import com.github.leloxo.socialmediaclone.util.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind like and comment counters.
+ * <p>
+ * Committed changes are accumulated as per-post deltas in {@link LongAdder}s and periodically
+ * flushed with batched {@code UPDATE post SET like_count = like_count + ?} statements, so a
+ * popular post is never read, modified and saved as a whole. Reads add the pending delta to the
+ * persisted count. Applying a batch holds a write lock that count reads validate against, so a
+ * read never sees a delta both in the database and pending, or in neither. Deltas still pending
+ * on shutdown are flushed before the context closes.
+ */
+@Service
+public class PostCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(PostCounterService.class);
+
+    private static final String UPDATE_LIKE_COUNT = "UPDATE post SET like_count = like_count + ? WHERE id = ?";
+    private static final String UPDATE_COMMENT_COUNT = "UPDATE post SET comment_count = comment_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostRepository postRepository;
+    private final CacheManager cacheManager;
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final ConcurrentHashMap<Long, LongAdder> pendingLikes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> pendingComments = new ConcurrentHashMap<>();
+    private final StampedLock flushLock = new StampedLock();
+
+    @Value("${counters.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    public PostCounterService(JdbcTemplate jdbcTemplate, PostRepository postRepository, CacheManager cacheManager, CacheInvalidationService cacheInvalidationService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postRepository = postRepository;
+        this.cacheManager = cacheManager;
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    // Deltas are only counted once the surrounding transaction has committed
+    public void addLikes(Long postId, long delta) {
+        TransactionHooks.afterCommit(() -> add(pendingLikes, postId, delta));
+    }
+
+    public void addComments(Long postId, long delta) {
+        TransactionHooks.afterCommit(() -> add(pendingComments, postId, delta));
+    }
+
+    public int getLikeCount(Long postId) throws ResourceNotFoundException {
+        return requireFound(count(CacheNames.POST_LIKE_COUNT, pendingLikes, postId, () -> postRepository.findLikeCountById(postId)), postId);
+    }
+
+    public int getCommentCount(Long postId) throws ResourceNotFoundException {
+        return requireFound(count(CacheNames.POST_COMMENT_COUNT, pendingComments, postId, () -> postRepository.findCommentCountById(postId)), postId);
+    }
+
+    /**
+     * Counts for a page of posts that may come from a cached page. The entities' own counts are
+     * only as fresh as the page, while the pending deltas are reset by every flush, so the
+     * persisted parts are read through the count regions like {@link #getLikeCount(Long)}; counts
+     * missing from either region are loaded for the whole page with one query. An entity's own
+     * counts are only used once the post is gone.
+     */
+    public Map<Long, PostCounts> getCounts(Collection<Post> posts) {
+        // Optimistic while everything is cached; a load or a flush in between takes the read lock
+        long stamp = flushLock.tryOptimisticRead();
+        Set<Long> missing = new HashSet<>();
+        Map<Long, PostCounts> counts = readCachedCounts(posts, missing);
+        if (missing.isEmpty() && flushLock.validate(stamp)) {
+            return counts;
+        }
+
+        // Held across the load so a flush cannot evict the regions between the query and the put
+        stamp = flushLock.readLock();
+        try {
+            return readCounts(posts);
+        } finally {
+            flushLock.unlockRead(stamp);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${counters.flush-interval:1000}")
+    public synchronized void flush() {
+        flush(pendingLikes, UPDATE_LIKE_COUNT, cacheInvalidationService::evictLikeCount);
+        flush(pendingComments, UPDATE_COMMENT_COUNT, cacheInvalidationService::evictCommentCount);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        logger.info("Flushed pending post counters on shutdown");
+    }
+
+    // Null if the post does not exist
+    private Integer count(String cacheName, ConcurrentHashMap<Long, LongAdder> pending, Long postId, Callable<Integer> loader) {
+        // Optimistic first; a flush applied in between means the persisted and pending parts may not match
+        long stamp = flushLock.tryOptimisticRead();
+        Integer count = readCount(cacheName, pending, postId, loader);
+        if (!flushLock.validate(stamp)) {
+            stamp = flushLock.readLock();
+            try {
+                count = readCount(cacheName, pending, postId, loader);
+            } finally {
+                flushLock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    private static int requireFound(Integer count, Long postId) throws ResourceNotFoundException {
+        if (count == null) {
+            throw new ResourceNotFoundException("Post with ID " + postId + " not found");
+        }
+        return count;
+    }
+
+    private Integer readCount(String cacheName, ConcurrentHashMap<Long, LongAdder> pending, Long postId, Callable<Integer> loader) {
+        Integer persisted = persistedCount(cacheName, postId, loader);
+        return persisted != null ? persisted + (int) pending(pending, postId) : null;
+    }
+
+    // Counts of the posts whose persisted counts are both cached; the others are added to missing
+    private Map<Long, PostCounts> readCachedCounts(Collection<Post> posts, Set<Long> missing) {
+        Cache likeCounts = cache(CacheNames.POST_LIKE_COUNT);
+        Cache commentCounts = cache(CacheNames.POST_COMMENT_COUNT);
+
+        Map<Long, PostCounts> counts = new HashMap<>();
+        for (Post post : posts) {
+            Cache.ValueWrapper likeCount = likeCounts.get(post.getId());
+            Cache.ValueWrapper commentCount = commentCounts.get(post.getId());
+            if (likeCount == null || commentCount == null) {
+                missing.add(post.getId());
+            } else {
+                counts.put(post.getId(), merge(post, (Integer) likeCount.get(), (Integer) commentCount.get()));
+            }
+        }
+        return counts;
+    }
+
+    private Map<Long, PostCounts> readCounts(Collection<Post> posts) {
+        Set<Long> missing = new HashSet<>();
+        Map<Long, PostCounts> counts = readCachedCounts(posts, missing);
+        if (missing.isEmpty()) {
+            return counts;
+        }
+
+        Cache likeCounts = cache(CacheNames.POST_LIKE_COUNT);
+        Cache commentCounts = cache(CacheNames.POST_COMMENT_COUNT);
+        Map<Long, PostCounts> loaded = new HashMap<>();
+        for (PostCounts persisted : postRepository.findCountsByIdIn(missing)) {
+            likeCounts.put(persisted.getId(), persisted.getLikeCount());
+            commentCounts.put(persisted.getId(), persisted.getCommentCount());
+            loaded.put(persisted.getId(), persisted);
+        }
+
+        for (Post post : posts) {
+            if (missing.contains(post.getId())) {
+                PostCounts persisted = loaded.get(post.getId());
+                counts.put(post.getId(), persisted != null
+                        ? merge(post, persisted.getLikeCount(), persisted.getCommentCount())
+                        : merge(post, null, null));
+            }
+        }
+        return counts;
+    }
+
+    // Persisted counts are null once the post is gone
+    private PostCounts merge(Post post, Integer likeCount, Integer commentCount) {
+        return new PostCounts(
+                post.getId(),
+                likeCount != null ? likeCount + (int) pending(pendingLikes, post.getId()) : post.getLikeCount(),
+                commentCount != null ? commentCount + (int) pending(pendingComments, post.getId()) : post.getCommentCount()
+        );
+    }
+
+    private void flush(ConcurrentHashMap<Long, LongAdder> pending, String sql, Consumer<Long> evict) {
+        List<Map.Entry<Long, LongAdder>> batch = new ArrayList<>();
+
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            Long postId = entry.getKey();
+            LongAdder adder = entry.getValue();
+
+            if (adder.sum() == 0) {
+                // Idle since the last flush; drop the entry and rescue increments that raced with the removal
+                if (pending.remove(postId, adder)) {
+                    long late = adder.sumThenReset();
+                    if (late != 0) {
+                        add(pending, postId, late);
+                    }
+                }
+                continue;
+            }
+
+            batch.add(entry);
+            if (batch.size() >= flushBatchSize) {
+                execute(pending, sql, batch, evict);
+                batch = new ArrayList<>();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            execute(pending, sql, batch, evict);
+        }
+    }
+
+    // Count reads wait for the batch while it is written, which is the price of never reading a delta twice
+    private void execute(ConcurrentHashMap<Long, LongAdder> pending, String sql, List<Map.Entry<Long, LongAdder>> entries, Consumer<Long> evict) {
+        long stamp = flushLock.writeLock();
+        try {
+            List<Object[]> batch = new ArrayList<>(entries.size());
+            for (Map.Entry<Long, LongAdder> entry : entries) {
+                batch.add(new Object[]{entry.getValue().sumThenReset(), entry.getKey()});
+            }
+
+            try {
+                jdbcTemplate.batchUpdate(sql, batch);
+            } catch (DataAccessException e) {
+                logger.error("Failed to flush {} post counters, keeping them pending", batch.size(), e);
+                batch.forEach(args -> add(pending, (Long) args[1], (Long) args[0]));
+                return;
+            }
+            // The cached persisted counts are now behind and the flushed deltas are no longer pending
+            batch.forEach(args -> evict.accept((Long) args[1]));
+        } finally {
+            flushLock.unlockWrite(stamp);
+        }
+    }
+
+    private static void add(ConcurrentHashMap<Long, LongAdder> pending, Long postId, long delta) {
+        LongAdder adder = pending.computeIfAbsent(postId, id -> new LongAdder());
+        adder.add(delta);
+
+        // A flush may have removed the adder while it was being updated; move the delta to the current one
+        if (pending.get(postId) != adder) {
+            long orphaned = adder.sumThenReset();
+            if (orphaned != 0) {
+                add(pending, postId, orphaned);
+            }
+        }
+    }
+
+    private static long pending(ConcurrentHashMap<Long, LongAdder> pending, Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    // Only the persisted count is cached; flushing evicts it
+    private Integer persistedCount(String cacheName, Long postId, Callable<Integer> loader) {
+        return cache(cacheName).get(postId, loader);
+    }
+
+    private Cache cache(String cacheName) {
+        return Objects.requireNonNull(cacheManager.getCache(cacheName));
+    }
+}
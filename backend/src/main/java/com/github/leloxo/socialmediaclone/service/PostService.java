@@ -2,29 +2,40 @@ package com.github.leloxo.socialmediaclone.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.github.leloxo.socialmediaclone.config.CacheNames;
+import com.github.leloxo.socialmediaclone.event.PostCreatedEvent;
 import com.github.leloxo.socialmediaclone.exception.*;
 import com.github.leloxo.socialmediaclone.model.Comment;
 import com.github.leloxo.socialmediaclone.model.Post;
-import com.github.leloxo.socialmediaclone.model.PostLike;
 import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.pagination.CursorPage;
 import com.github.leloxo.socialmediaclone.repository.CommentRepository;
 import com.github.leloxo.socialmediaclone.repository.PostLikeRepository;
 import com.github.leloxo.socialmediaclone.repository.PostRepository;
 import com.github.leloxo.socialmediaclone.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PostService {
@@ -36,14 +47,34 @@ public class PostService {
     private final UserRepository userRepository;
     private final PostLikeRepository postLikeRepository;
     private final CommentRepository commentRepository;
+    private final TimelineService timelineService;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final PostCounterService postCounterService;
+    private final LikedPostIndex likedPostIndex;
+    private final CaptionSearchIndex captionSearchIndex;
+    private final HashtagService hashtagService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PostService(Cloudinary cloudinary, PostRepository postRepository, UserFollowService userFollowService, UserRepository userRepository, PostLikeRepository postLikeRepository, CommentRepository commentRepository) {
+    @Value("${feed.timeline.enabled:true}")
+    private boolean timelineEnabled;
+
+    @Value("${posts.details.comment-limit:20}")
+    private int detailsCommentLimit;
+
+    public PostService(Cloudinary cloudinary, PostRepository postRepository, UserFollowService userFollowService, UserRepository userRepository, PostLikeRepository postLikeRepository, CommentRepository commentRepository, TimelineService timelineService, CacheInvalidationService cacheInvalidationService, PostCounterService postCounterService, LikedPostIndex likedPostIndex, CaptionSearchIndex captionSearchIndex, HashtagService hashtagService, ApplicationEventPublisher eventPublisher) {
         this.cloudinary = cloudinary;
         this.postRepository = postRepository;
         this.userFollowService = userFollowService;
         this.userRepository = userRepository;
         this.postLikeRepository = postLikeRepository;
         this.commentRepository = commentRepository;
+        this.timelineService = timelineService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.postCounterService = postCounterService;
+        this.likedPostIndex = likedPostIndex;
+        this.captionSearchIndex = captionSearchIndex;
+        this.hashtagService = hashtagService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Cloudinary Docs:
@@ -92,7 +123,6 @@ public class PostService {
     }
 
     @Transactional
-    @CacheEvict(value = {"userPosts", "userFeed"}, key = "#authorId")
     public Post createPost(String caption, String imageUrl, Long authorId) throws ResourceNotFoundException {
         User author = userRepository.findById(authorId)
                 .orElseThrow(() -> new ResourceNotFoundException("User with ID " + authorId + " not found"));
@@ -102,11 +132,15 @@ public class PostService {
         post.setImageUrl(imageUrl);
         post.setAuthor(author);
 
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        hashtagService.tagPost(savedPost);
+        eventPublisher.publishEvent(new PostCreatedEvent(savedPost.getId(), authorId, caption, savedPost.getCreatedAt()));
+        cacheInvalidationService.evictUserPosts(author.getDisplayUsername());
+
+        return savedPost;
     }
 
     @Transactional
-    @CacheEvict(value = {"userPosts", "userFeed"}, key = "#authorId")
     public void deletePost(Long authorId, Long postId) throws ResourceNotFoundException, CloudinaryDeleteException {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post with ID " + postId + " not found"));
@@ -125,133 +159,214 @@ public class PostService {
             }
         }
 
+        timelineService.onPostDeleted(postId);
+        captionSearchIndex.onPostDeleted(postId);
+        hashtagService.onPostDeleted(postId);
         postRepository.delete(post);
+
+        cacheInvalidationService.evictPost(postId);
+        cacheInvalidationService.evictUserPosts(post.getAuthor().getDisplayUsername());
+        cacheInvalidationService.evictAllFeeds();
     }
 
     private String extractPublicId(String imageUrl) {
         return imageUrl.substring(imageUrl.lastIndexOf("/") + 1, imageUrl.lastIndexOf("."));
     }
 
-    @Transactional
-    @CacheEvict(value = "postLikes", key = "#postId")
-    public Post likePost(Long postId, Long userId) throws ResourceNotFoundException {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post with ID " + postId + " not found"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User with ID " + userId + " not found"));
-
-        if (!postLikeRepository.existsByPostIdAndUserId(postId, userId)) {
-            PostLike like = new PostLike();
-            like.setPost(post);
-            like.setUser(user);
-
-            try {
-                postLikeRepository.save(like);
-                post.incrementLikeCount();
-                postRepository.save(post);
-            } catch (DataIntegrityViolationException e) {
-                throw new DuplicateLikeException("User has already liked this post");
-            }
+    /**
+     * Likes the post and returns its new like count. Liking twice is a no-op, and the counter
+     * only moves when a row was actually inserted.
+     */
+    public int likePost(Long postId, Long userId) throws ResourceNotFoundException {
+        if (postLikeRepository.insertIfAbsent(postId, userId) > 0) {
+            postCounterService.addLikes(postId, 1);
+            likedPostIndex.onLiked(userId, postId);
         }
-
-        return post;
+        return postCounterService.getLikeCount(postId);
     }
 
-    @Transactional
-    @CacheEvict(value = "postLikes", key = "#postId")
-    public Post unlikePost(Long postId, Long userId) throws ResourceNotFoundException {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post with ID " + postId + " not found"));
-        PostLike like = postLikeRepository.findByPostIdAndUserId(postId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Like not found for post ID " + postId + " and user ID " + userId));
-
-        postLikeRepository.delete(like);
-        post.decrementLikeCount();
-
-        postRepository.save(post);
-
-        return post;
+    public int unlikePost(Long postId, Long userId) throws ResourceNotFoundException {
+        if (postLikeRepository.deleteByPostIdAndUserId(postId, userId) > 0) {
+            postCounterService.addLikes(postId, -1);
+            likedPostIndex.onUnliked(userId, postId);
+        }
+        return postCounterService.getLikeCount(postId);
     }
 
-    // TODO: only select necessary user information from post comments (getReferenceById(postId))
-    // TODO: returns updated post with new comment?
+    /**
+     * Adds a comment without loading the post or its comments: the post and the author are
+     * referenced by ID and the comment count moves through {@link PostCounterService}.
+     */
     @Transactional
-    @CacheEvict(value = "postComments", key = "#postId")
-    public Post addComment(Long userId, Long postId, String content) throws ResourceNotFoundException {
-        Post post = postRepository.findByIdWithDetails(postId)
+    public Comment addComment(Long userId, Long postId, String content) throws ResourceNotFoundException {
+        String authorUserName = postRepository.findAuthorUserNameById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post with ID " + postId + " not found"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User with ID " + userId + " not found"));
 
         Comment comment = new Comment();
-        comment.setAuthor(user);
-        comment.setPost(post);
+        comment.setAuthor(userRepository.getReferenceById(userId));
+        comment.setPost(postRepository.getReferenceById(postId));
         comment.setContent(content);
 
-        commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        postCounterService.addComments(postId, 1);
 
-        post.incrementCommentCount();
-        post.getComments().add(comment);
+        cacheInvalidationService.evictPost(postId);
+        cacheInvalidationService.evictUserPosts(authorUserName);
 
-        return postRepository.save(post);
+        return savedComment;
     }
 
     @Transactional
-    @CacheEvict(value = "postComments", key = "#postId")
-    public Post removeComment(Long userId, Long postId, Long commentId) throws ResourceNotFoundException {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post with ID " + postId + " not found"));
-
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Comment with ID " + commentId + " not found"));
-
-        if (!comment.getPost().getId().equals(postId)) {
-            throw new ResourceNotFoundException("Comment with ID " + commentId + " is not in the post");
+    public void removeComment(Long userId, Long postId, Long commentId) throws ResourceNotFoundException {
+        if (commentRepository.deleteByIdAndPostIdAndAuthorId(commentId, postId, userId) == 0) {
+            throw new ResourceNotFoundException("Comment with ID " + commentId + " not found in post " + postId + " for this user");
         }
-        if (!comment.getAuthor().getId().equals(userId)) {
-            throw new ResourceNotFoundException("Comment with ID " + commentId + " is not in the author");
-        }
-
-        commentRepository.delete(comment);
-        post.decrementCommentCount();
-        postRepository.save(post);
+        postCounterService.addComments(postId, -1);
 
-        return post;
+        cacheInvalidationService.evictPost(postId);
+        postRepository.findAuthorUserNameById(postId).ifPresent(cacheInvalidationService::evictUserPosts);
     }
 
-    @Cacheable(value = "postDetails", key = "#postId")
+    @Cacheable(value = CacheNames.POST_DETAILS, key = "#postId")
     public Post getPostById(Long postId) throws ResourceNotFoundException {
-        return postRepository.findByIdWithDetails(postId)
+        return postRepository.findByIdWithAuthor(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post with ID " + postId + " not found"));
     }
 
-    @Cacheable(value = "userPostsByName", key = "#username")
+    // Post details show only the newest comments; older ones are paged through getComments
+    @Cacheable(value = CacheNames.POST_LATEST_COMMENTS, key = "#postId")
+    public List<Comment> getLatestComments(Long postId) {
+        Cursor start = Cursor.start();
+        return commentRepository.findByPostIdBefore(
+                postId, start.getCreatedAt(), start.getId(), PageRequest.of(0, detailsCommentLimit));
+    }
+
+    public CursorPage<Comment> getComments(Long postId, Cursor cursor, int size) throws ResourceNotFoundException {
+        List<Comment> comments = commentRepository.findByPostIdBefore(
+                postId, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size + 1));
+
+        // An empty page is the only case where a missing post is not already ruled out
+        if (comments.isEmpty() && !postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post with ID " + postId + " not found");
+        }
+
+        List<Cursor> keys = comments.stream()
+                .map(comment -> new Cursor(comment.getCreatedAt(), comment.getId()))
+                .collect(Collectors.toList());
+        return CursorPage.of(comments.subList(0, Math.min(size, comments.size())), keys, size);
+    }
+
+    @Cacheable(value = CacheNames.USER_POSTS_BY_NAME, keyGenerator = "pageCacheKeyGenerator")
     public Page<Post> getPostsByUserName(String username, Pageable pageable) {
-        return postRepository.findByAuthorUserNameWithDetails(username, pageable);
+        return hydratePage(postRepository.findIdsByAuthorUserName(username, pageable), pageable);
     }
 
-    @Cacheable(value = "userFeed", key = "#userId")
+    @Cacheable(value = CacheNames.USER_FEED, keyGenerator = "pageCacheKeyGenerator")
     public Page<Post> getFeedForUser(Long userId, Pageable pageable) throws ResourceNotFoundException {
+        if (timelineEnabled) {
+            return hydratePage(timelineService.getTimelinePostIds(userId, pageable), pageable);
+        }
+
         List<Long> followingIds = userFollowService.getFollowingIds(userId);
         if (followingIds.isEmpty()) {
             return Page.empty(pageable);
         }
 
-        return postRepository.findByAuthorIdsIn(followingIds, pageable);
+        return hydratePage(postRepository.findIdsByAuthorIdIn(followingIds, pageable), pageable);
+    }
+
+    public CursorPage<Post> getPostsByUserName(String username, Cursor cursor, int size) {
+        List<Cursor> keys = postRepository.findKeysByAuthorUserNameBefore(
+                username, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size + 1));
+        return hydrateCursorPage(keys, size);
+    }
+
+    public CursorPage<Post> getFeedForUser(Long userId, Cursor cursor, int size) throws ResourceNotFoundException {
+        if (timelineEnabled) {
+            return hydrateCursorPage(timelineService.getTimelineKeys(userId, cursor, size + 1), size);
+        }
+
+        List<Long> followingIds = userFollowService.getFollowingIds(userId);
+        List<Cursor> keys = postRepository.findKeysByAuthorIdInBefore(
+                followingIds, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size + 1));
+        return hydrateCursorPage(keys, size);
+    }
+
+    public CursorPage<Post> getPostsByTag(String tag, Cursor cursor, int size) throws ResourceNotFoundException {
+        return hydrateCursorPage(hashtagService.getPostKeys(tag, cursor, size + 1), size);
+    }
+
+    /**
+     * Returns the posts whose caption best matches the query, best first. Posts the index still
+     * holds but that were deleted on another node are dropped from the index here.
+     */
+    public List<Post> searchPosts(String query, int limit) {
+        List<Long> postIds = captionSearchIndex.search(query, limit);
+        List<Post> posts = findPostsInOrder(postIds);
+
+        if (posts.size() < postIds.size()) {
+            Set<Long> found = posts.stream().map(Post::getId).collect(Collectors.toSet());
+            postIds.stream()
+                    .filter(postId -> !found.contains(postId))
+                    .forEach(captionSearchIndex::remove);
+        }
+        return posts;
+    }
+
+    // Keys are fetched one past the page size to learn whether a next page exists without counting
+    private CursorPage<Post> hydrateCursorPage(List<Cursor> keys, int size) {
+        List<Long> postIds = keys.stream()
+                .limit(size)
+                .map(Cursor::getId)
+                .collect(Collectors.toList());
+        return CursorPage.of(findPostsInOrder(postIds), keys, size);
+    }
+
+    // Second phase of a paged post query: only the posts of the current page are loaded
+    private Page<Post> hydratePage(Page<Long> postIds, Pageable pageable) {
+        return new PageImpl<>(findPostsInOrder(postIds.getContent()), pageable, postIds.getTotalElements());
+    }
+
+    // Loads the posts with their authors in one query and restores the order of the given IDs; comments stay unloaded
+    private List<Post> findPostsInOrder(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Post> postsById = postRepository.findAllWithAuthorByIdIn(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        // Posts deleted between the ID lookup and the hydration are skipped
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
-    @Cacheable(value = "postComments", key = "#postId")
     public int getLikeCount(Long postId) throws ResourceNotFoundException {
-        return postRepository.findLikeCountById(postId);
+        return postCounterService.getLikeCount(postId);
     }
 
-    @Cacheable(value = "postLikes", key = "#postId")
     public int getCommentCount(Long postId) throws ResourceNotFoundException {
-        return postRepository.findCommentCountById(postId);
+        return postCounterService.getCommentCount(postId);
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional: with the liked-post index enabled these checks never need a connection
     public boolean hasUserLikedPost(Long userId, Long postId) {
+        if (likedPostIndex.isEnabled()) {
+            return likedPostIndex.hasLiked(userId, postId);
+        }
         return postLikeRepository.existsByPostIdAndUserId(postId, userId);
     }
+
+    // Answers the liked status of a whole page of posts with at most one query
+    public Set<Long> getLikedPostIds(Long userId, Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Set.of();
+        }
+        if (likedPostIndex.isEnabled()) {
+            return likedPostIndex.filterLiked(userId, postIds);
+        }
+        return new HashSet<>(postLikeRepository.findLikedPostIds(userId, postIds));
+    }
 }
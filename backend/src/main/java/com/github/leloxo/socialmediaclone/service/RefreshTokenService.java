@@ -0,0 +1,117 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.exception.UnauthorizedException;
+import com.github.leloxo.socialmediaclone.model.RefreshToken;
+import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.repository.RefreshTokenRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues and rotates refresh tokens. Each refresh token is single use: exchanging it revokes it
+ * and issues a new one for the same device. Presenting an already used token means it was
+ * copied, so every token of that device is revoked and the device has to log in again.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${security.jwt.refresh-expiration-time:2592000000}")
+    private long refreshExpiration;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    @Transactional
+    public String issue(User user, String deviceId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(user);
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setDeviceId(deviceId);
+        refreshToken.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000));
+        refreshTokenRepository.save(refreshToken);
+
+        return token;
+    }
+
+    // Commits the reuse revocation even though the caller's request fails
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public RotatedToken rotate(String token) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHashWithUser(hash(token))
+                .orElseThrow(() -> new UnauthorizedException("Refresh token is invalid"));
+
+        User user = refreshToken.getUser();
+        String deviceId = refreshToken.getDeviceId();
+
+        if (refreshToken.isRevoked() || refreshTokenRepository.markRevoked(refreshToken.getId()) == 0) {
+            logger.warn("Reuse of refresh token detected for user {} on device {}", user.getId(), deviceId);
+            refreshTokenRepository.revokeByUserIdAndDeviceId(user.getId(), deviceId);
+            throw new UnauthorizedException("Refresh token has already been used");
+        }
+        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new UnauthorizedException("Refresh token has expired");
+        }
+        if (!user.isEnabled()) {
+            throw new DisabledException("User account is deactivated");
+        }
+
+        return new RotatedToken(user, deviceId, issue(user, deviceId));
+    }
+
+    @Transactional
+    public void revokeDevice(Long userId, String deviceId) {
+        int revoked = refreshTokenRepository.revokeByUserIdAndDeviceId(userId, deviceId);
+        logger.debug("Revoked {} refresh tokens of user {} on device {}", revoked, userId, deviceId);
+    }
+
+    public long getExpirationTime() {
+        return refreshExpiration;
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-purge-interval:3600000}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        logger.debug("Purged {} expired refresh tokens", deleted);
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RotatedToken {
+        private final User user;
+        private final String deviceId;
+        private final String refreshToken;
+    }
+}
@@ -0,0 +1,193 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.leloxo.socialmediaclone.event.PostCreatedEvent;
+import com.github.leloxo.socialmediaclone.model.TimelineEntry;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.repository.TimelineEntryRepository;
+import com.github.leloxo.socialmediaclone.repository.UserFollowRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the precomputed home timelines (fan-out on write).
+ * <p>
+ * New posts are pushed into the timeline of every follower after the creating
+ * transaction commits, so reading a feed is an index range scan over
+ * {@code timeline_entry} instead of a query over every followed author's posts.
+ * Timelines are capped at {@code feed.timeline.max-size} entries by a periodic trim.
+ */
+@Service
+public class TimelineService {
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final UserFollowRepository userFollowRepository;
+    private final CacheInvalidationService cacheInvalidationService;
+
+    // Users whose timeline grew since the last trim
+    private final Set<Long> pendingTrim = ConcurrentHashMap.newKeySet();
+
+    @Value("${feed.timeline.max-size:800}")
+    private int maxSize;
+
+    @Value("${feed.timeline.fan-out-batch-size:1000}")
+    private int fanOutBatchSize;
+
+    @Value("${feed.timeline.rebuild-interval:10m}")
+    private Duration rebuildInterval;
+
+    @Value("${feed.timeline.max-rebuild-markers:100000}")
+    private long maxRebuildMarkers;
+
+    // Users whose empty timeline was rebuilt recently, so a timeline that stays empty is not rebuilt on every read
+    private Cache<Long, Boolean> recentRebuilds;
+
+    public TimelineService(TimelineEntryRepository timelineEntryRepository, UserFollowRepository userFollowRepository, CacheInvalidationService cacheInvalidationService) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.userFollowRepository = userFollowRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    @PostConstruct
+    void init() {
+        recentRebuilds = Caffeine.newBuilder()
+                .maximumSize(maxRebuildMarkers)
+                .expireAfterWrite(rebuildInterval)
+                .build();
+    }
+
+    // Runs in its own transaction: when the executor is saturated the fan-out runs on the posting
+    // thread, where the original transaction has already committed and would not commit these writes
+    @Async("timelineExecutor")
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPostCreated(PostCreatedEvent event) {
+        Long postId = event.getPostId();
+        Long authorId = event.getAuthorId();
+        long startTime = System.currentTimeMillis();
+        int inserted = timelineEntryRepository.insertForUsers(postId, authorId, event.getCreatedAt(), List.of(authorId));
+        pendingTrim.add(authorId);
+        cacheInvalidationService.evictFeed(authorId);
+
+        Long afterId = 0L;
+        while (true) {
+            List<Long> followerIds = userFollowRepository.findFollowerIdsByFollowingIdAfter(
+                    authorId, afterId, PageRequest.of(0, fanOutBatchSize));
+            if (followerIds.isEmpty()) {
+                break;
+            }
+
+            inserted += timelineEntryRepository.insertForUsers(postId, authorId, event.getCreatedAt(), followerIds);
+            pendingTrim.addAll(followerIds);
+            cacheInvalidationService.evictFeeds(followerIds);
+            afterId = followerIds.get(followerIds.size() - 1);
+
+            if (followerIds.size() < fanOutBatchSize) {
+                break;
+            }
+        }
+
+        logger.debug("Fanned out post {} to {} timelines in {} ms", postId, inserted, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Returns one page of post IDs from the user's timeline, newest first. A user without
+     * any timeline entries (e.g. one created before fan-out was enabled) gets the timeline
+     * rebuilt from the people they follow on the first read, and again at most once per
+     * {@code feed.timeline.rebuild-interval} while it stays empty.
+     */
+    public Page<Long> getTimelinePostIds(Long userId, Pageable pageable) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Long> postIds = timelineEntryRepository.findPostIdsByUserId(userId, unsorted);
+
+        if (postIds.getTotalElements() == 0 && rebuild(userId)) {
+            postIds = timelineEntryRepository.findPostIdsByUserId(userId, unsorted);
+        }
+
+        return postIds;
+    }
+
+    /**
+     * Returns up to {@code limit} timeline keys after the given cursor, newest first.
+     */
+    public List<Cursor> getTimelineKeys(Long userId, Cursor cursor, int limit) {
+        List<Cursor> keys = findTimelineKeys(userId, cursor, limit);
+
+        if (keys.isEmpty() && cursor == Cursor.start() && rebuild(userId)) {
+            keys = findTimelineKeys(userId, cursor, limit);
+        }
+
+        return keys;
+    }
+
+    // True if the rebuild added entries; skipped while an earlier attempt for the user is remembered
+    private boolean rebuild(Long userId) {
+        if (recentRebuilds.asMap().putIfAbsent(userId, Boolean.TRUE) != null) {
+            return false;
+        }
+        return timelineEntryRepository.rebuildForUser(userId, maxSize) > 0;
+    }
+
+    private List<Cursor> findTimelineKeys(Long userId, Cursor cursor, int limit) {
+        return timelineEntryRepository.findKeysByUserIdBefore(
+                userId, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, limit));
+    }
+
+    public void onFollow(Long followerId, Long followingId) {
+        if (timelineEntryRepository.insertRecentPostsOfAuthor(followerId, followingId, maxSize) > 0) {
+            pendingTrim.add(followerId);
+        }
+    }
+
+    public void onUnfollow(Long followerId, Long followingId) {
+        timelineEntryRepository.deleteByUserIdAndAuthorId(followerId, followingId);
+    }
+
+    public void onPostDeleted(Long postId) {
+        timelineEntryRepository.deleteByPostId(postId);
+    }
+
+    @Scheduled(fixedDelayString = "${feed.timeline.trim-interval:60000}")
+    public void trimTimelines() {
+        int trimmed = 0;
+        Iterator<Long> iterator = pendingTrim.iterator();
+        while (iterator.hasNext()) {
+            Long userId = iterator.next();
+            iterator.remove();
+            trimmed += trimTimeline(userId);
+        }
+
+        if (trimmed > 0) {
+            logger.debug("Trimmed {} timeline entries", trimmed);
+        }
+    }
+
+    private int trimTimeline(Long userId) {
+        List<TimelineEntry> cutoff = timelineEntryRepository.findEntriesByUserId(userId, PageRequest.of(maxSize, 1));
+        if (cutoff.isEmpty()) {
+            return 0;
+        }
+
+        TimelineEntry oldestExcess = cutoff.get(0);
+        return timelineEntryRepository.deleteOlderThan(userId, oldestExcess.getPostCreatedAt(), oldestExcess.getPost().getId());
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.model.RevokedToken;
+import com.github.leloxo.socialmediaclone.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks revoked (logged out) tokens by their token ID ({@code jti}).
+ * <p>
+ * Lookups hit a {@link ConcurrentHashMap} only. An entry is kept just until the token's own
+ * expiry, after which the token is rejected anyway, so memory is bounded by the number of
+ * tokens revoked within one token lifetime. With {@code security.jwt.revocation.persistent}
+ * enabled, revocations are also written to {@code revoked_token} and every node polls that
+ * table, so a logout on one node applies on all of them.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // Token ID -> expiry in epoch millis
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    @Value("${security.jwt.revocation.persistent:false}")
+    private boolean persistent;
+
+    @Value("${security.jwt.revocation.sync-interval:5000}")
+    private long syncInterval;
+
+    private volatile LocalDateTime lastSync = LocalDateTime.MIN;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @PostConstruct
+    void loadRevokedTokens() {
+        if (persistent) {
+            syncRevokedTokens();
+            logger.info("Loaded {} revoked tokens", revokedTokens.size());
+        }
+    }
+
+    public void revoke(String tokenId, Date expiresAt) {
+        long expiresAtMillis = expiresAt.getTime();
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+
+        revokedTokens.put(tokenId, expiresAtMillis);
+
+        if (persistent && !revokedTokenRepository.existsByTokenId(tokenId)) {
+            RevokedToken revokedToken = new RevokedToken();
+            revokedToken.setTokenId(tokenId);
+            revokedToken.setExpiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneOffset.UTC));
+            revokedToken.setCreatedAt(LocalDateTime.now(ZoneOffset.UTC));
+            try {
+                revokedTokenRepository.save(revokedToken);
+            } catch (DataIntegrityViolationException e) {
+                // Revoked concurrently on another node
+                logger.debug("Token {} is already revoked", tokenId);
+            }
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return revokedTokens.containsKey(tokenId);
+    }
+
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.sync-interval:5000}")
+    public void syncRevokedTokens() {
+        if (!persistent) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        // Look back past the previous sync so rows committed late by slow transactions, or stamped by a
+        // node whose clock runs slightly behind, are not missed
+        LocalDateTime since = lastSync.equals(LocalDateTime.MIN)
+                ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                : lastSync.minusNanos(syncInterval * 2_000_000);
+
+        for (RevokedToken revokedToken : revokedTokenRepository.findActiveCreatedSince(since, now)) {
+            revokedTokens.putIfAbsent(revokedToken.getTokenId(), revokedToken.getExpiresAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.purge-interval:60000}")
+    public void purgeExpired() {
+        long now = Instant.now().toEpochMilli();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+
+        if (persistent) {
+            int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now(ZoneOffset.UTC));
+            logger.debug("Purged {} expired token revocations", deleted);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A trending hashtag and how often it was used within the requested window, as estimated by the
+ * window's Count-Min Sketch.
+ */
+@Getter
+@AllArgsConstructor
+public class TrendingTag {
+    private final String tag;
+    private final long count;
+}
@@ -0,0 +1,279 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.event.PostCreatedEvent;
+import com.github.leloxo.socialmediaclone.exception.ResourceNotFoundException;
+import com.github.leloxo.socialmediaclone.repository.HashtagUse;
+import com.github.leloxo.socialmediaclone.repository.PostHashtagRepository;
+import com.github.leloxo.socialmediaclone.util.CountMinSketch;
+import com.github.leloxo.socialmediaclone.util.Hashtags;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Counts hashtag uses over sliding time windows (by default the last hour and the last day) and
+ * answers which tags are trending in each.
+ * <p>
+ * A window is a ring of Count-Min Sketches, one per interval, plus a running total of the ring;
+ * intervals that fall out of the window are subtracted from the total and reused. Next to the
+ * sketches each window tracks a bounded set of heavy-hitter candidates, so listing the top tags
+ * never enumerates every tag. Memory is fixed by the sketch dimensions whatever the post rate.
+ * <p>
+ * Uses are counted after the creating transaction commits. Counts are per node: on startup the
+ * longest window is replayed from {@code post_hashtag}, later posts from other nodes are not seen.
+ */
+@Service
+public class TrendingTagService {
+    private static final Logger logger = LoggerFactory.getLogger(TrendingTagService.class);
+
+    private final PostHashtagRepository postHashtagRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${tags.trending.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tags.trending.windows:1h,24h}")
+    private List<String> windowNames;
+
+    @Value("${tags.trending.buckets-per-window:60}")
+    private int bucketsPerWindow;
+
+    @Value("${tags.trending.sketch-width:2048}")
+    private int sketchWidth;
+
+    @Value("${tags.trending.sketch-depth:4}")
+    private int sketchDepth;
+
+    // Tags tracked as possibly trending per window; lists are cut from these
+    @Value("${tags.trending.candidates:200}")
+    private int candidateCapacity;
+
+    @Value("${tags.trending.warm-up-batch-size:5000}")
+    private int warmUpBatchSize;
+
+    private final Map<String, SlidingWindow> windows = new LinkedHashMap<>();
+    private volatile boolean warmedUp;
+
+    public TrendingTagService(PostHashtagRepository postHashtagRepository, MeterRegistry meterRegistry) {
+        this.postHashtagRepository = postHashtagRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        for (String name : windowNames) {
+            long windowMillis = DurationStyle.detectAndParse(name.trim()).toMillis();
+            long bucketMillis = Math.max(1, windowMillis / bucketsPerWindow);
+            windows.put(name.trim(), new SlidingWindow(bucketMillis, bucketsPerWindow, sketchWidth, sketchDepth, candidateCapacity));
+        }
+
+        Gauge.builder("tags.trending.memory", this, TrendingTagService::getSketchSizeInBytes)
+                .description("Heap used by the trending tag sketches")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Set<String> getWindowNames() {
+        return windows.keySet();
+    }
+
+    public List<TrendingTag> getTrending(String window, int limit) throws ResourceNotFoundException {
+        SlidingWindow slidingWindow = windows.get(window);
+        if (slidingWindow == null) {
+            throw new ResourceNotFoundException("No trending window " + window + ", available: " + windows.keySet());
+        }
+        return slidingWindow.top(limit, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        Set<String> tags = Hashtags.extract(event.getCaption());
+        if (!tags.isEmpty()) {
+            record(tags, toEpochMilli(event.getCreatedAt()));
+        }
+    }
+
+    void record(Collection<String> tags, long timeMillis) {
+        windows.values().forEach(window -> window.record(tags, timeMillis));
+    }
+
+    /**
+     * Replays the longest window from the database on the first run, then expires old intervals
+     * so candidates of tags nobody uses anymore are dropped even without new posts.
+     */
+    @Scheduled(initialDelayString = "${tags.trending.warm-up-delay:0}",
+            fixedDelayString = "${tags.trending.maintenance-interval:60000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        if (!warmedUp) {
+            warmUp();
+            warmedUp = true;
+        }
+
+        long now = System.currentTimeMillis();
+        windows.values().forEach(window -> window.advance(now));
+    }
+
+    // Posts committed while the replay runs may be counted twice; the skew is at most a few seconds of posts
+    private void warmUp() {
+        long startTime = System.currentTimeMillis();
+        Duration longest = windows.values().stream()
+                .map(window -> Duration.ofMillis(window.bucketMillis * window.buckets.length))
+                .max(Comparator.naturalOrder())
+                .orElse(Duration.ZERO);
+
+        LocalDateTime until = LocalDateTime.now();
+        LocalDateTime createdAt = until.minus(longest);
+        Long id = 0L;
+        int replayed = 0;
+        while (true) {
+            List<HashtagUse> uses = postHashtagRepository.findUsesAfter(createdAt, id, until, PageRequest.of(0, warmUpBatchSize));
+            for (HashtagUse use : uses) {
+                record(List.of(use.getTag()), toEpochMilli(use.getPostCreatedAt()));
+            }
+            replayed += uses.size();
+
+            if (uses.size() < warmUpBatchSize) {
+                break;
+            }
+            HashtagUse last = uses.get(uses.size() - 1);
+            createdAt = last.getPostCreatedAt();
+            id = last.getId();
+        }
+
+        logger.info("Replayed {} hashtag uses into the trending windows in {} ms", replayed, System.currentTimeMillis() - startTime);
+    }
+
+    public long getSketchSizeInBytes() {
+        return windows.values().stream()
+                .mapToLong(SlidingWindow::sizeInBytes)
+                .sum();
+    }
+
+    // Same zone as @CreationTimestamp, which stores the JVM's local time
+    private static long toEpochMilli(LocalDateTime time) {
+        return time == null ? System.currentTimeMillis() : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static final class SlidingWindow {
+        private final long bucketMillis;
+        private final CountMinSketch[] buckets;
+        // Sum of all buckets in the window
+        private final CountMinSketch total;
+        private final int candidateCapacity;
+        // Heavy-hitter candidates with their last estimated count
+        private final Map<String, Long> candidates = new HashMap<>();
+        // Index of the newest bucket, in units of bucketMillis since the epoch
+        private long currentBucket;
+
+        SlidingWindow(long bucketMillis, int bucketCount, int width, int depth, int candidateCapacity) {
+            this.bucketMillis = bucketMillis;
+            this.buckets = new CountMinSketch[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new CountMinSketch(width, depth);
+            }
+            this.total = new CountMinSketch(width, depth);
+            this.candidateCapacity = candidateCapacity;
+        }
+
+        synchronized void record(Collection<String> tags, long timeMillis) {
+            long bucket = Math.floorDiv(timeMillis, bucketMillis);
+            if (bucket > currentBucket) {
+                advanceTo(bucket);
+            } else if (bucket <= currentBucket - buckets.length) {
+                return;
+            }
+
+            CountMinSketch sketch = buckets[(int) Math.floorMod(bucket, (long) buckets.length)];
+            for (String tag : tags) {
+                sketch.add(tag, 1);
+                total.add(tag, 1);
+                offer(tag, total.estimate(tag));
+            }
+        }
+
+        synchronized void advance(long nowMillis) {
+            long bucket = Math.floorDiv(nowMillis, bucketMillis);
+            if (bucket > currentBucket) {
+                advanceTo(bucket);
+            }
+        }
+
+        synchronized List<TrendingTag> top(int limit, long nowMillis) {
+            advance(nowMillis);
+            return candidates.keySet().stream()
+                    .map(tag -> new TrendingTag(tag, total.estimate(tag)))
+                    .filter(tag -> tag.getCount() > 0)
+                    .sorted(Comparator.comparingLong(TrendingTag::getCount).reversed()
+                            .thenComparing(TrendingTag::getTag))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+
+        synchronized long sizeInBytes() {
+            return total.sizeInBytes() * (buckets.length + 1);
+        }
+
+        // Keeps a tag if there is room or it is counted more often than the weakest candidate
+        private void offer(String tag, long count) {
+            if (candidates.size() < candidateCapacity || candidates.containsKey(tag)) {
+                candidates.put(tag, count);
+                return;
+            }
+
+            Map.Entry<String, Long> weakest = candidates.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .orElseThrow();
+            if (count > weakest.getValue()) {
+                candidates.remove(weakest.getKey());
+                candidates.put(tag, count);
+            }
+        }
+
+        // Expires the buckets that leave the window and refreshes the candidates' counts
+        private void advanceTo(long bucket) {
+            if (bucket - currentBucket >= buckets.length) {
+                for (CountMinSketch sketch : buckets) {
+                    sketch.clear();
+                }
+                total.clear();
+            } else {
+                for (long expired = currentBucket + 1; expired <= bucket; expired++) {
+                    CountMinSketch sketch = buckets[(int) Math.floorMod(expired, (long) buckets.length)];
+                    total.subtract(sketch);
+                    sketch.clear();
+                }
+            }
+            currentBucket = bucket;
+
+            candidates.replaceAll((tag, count) -> total.estimate(tag));
+            candidates.values().removeIf(count -> count == 0);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.leloxo.socialmediaclone.dto.response.UserDetailsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Writes every user as one JSON array, row by row from a forward-only result set, so memory
+ * stays flat however large the user table is. Rows never become entities and nothing is
+ * collected; each row is serialized and flushed to the response in chunks as it is read.
+ * <p>
+ * The fetch size is {@code users.export.fetch-size}. The default, {@code -2147483648}, makes
+ * MySQL stream row by row; a positive fetch size is only honoured with {@code useCursorFetch=true}
+ * on the JDBC URL, otherwise the driver buffers the whole result.
+ */
+@Service
+public class UserExportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+
+    private static final String EXPORT_SQL = """
+            SELECT id, first_name, last_name, user_name, created_at, updated_at,
+                   profile_image_url, biography, follower_count, following_count
+            FROM `user` ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public UserExportService(DataSource dataSource, ObjectMapper objectMapper,
+                             @Value("${users.export.fetch-size:-2147483648}") int fetchSize) {
+        // Own template so the fetch size does not leak into other queries
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(OutputStream outputStream) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long[] exported = {0};
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            jdbcTemplate.query(EXPORT_SQL, (ResultSet resultSet) -> {
+                try {
+                    objectMapper.writeValue(generator, toUserDto(resultSet));
+                } catch (IOException e) {
+                    // Usually the client went away; abandons the query instead of reading on
+                    throw new UncheckedIOException(e);
+                }
+                exported[0]++;
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        logger.info("Exported {} users in {} ms", exported[0], System.currentTimeMillis() - startTime);
+    }
+
+    private static UserDetailsResponse toUserDto(ResultSet resultSet) throws SQLException {
+        return new UserDetailsResponse(
+                resultSet.getLong("id"),
+                resultSet.getString("first_name"),
+                resultSet.getString("last_name"),
+                resultSet.getString("user_name"),
+                toLocalDateTime(resultSet.getTimestamp("created_at")),
+                toLocalDateTime(resultSet.getTimestamp("updated_at")),
+                resultSet.getString("profile_image_url"),
+                resultSet.getString("biography"),
+                resultSet.getLong("follower_count"),
+                resultSet.getLong("following_count")
+        );
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
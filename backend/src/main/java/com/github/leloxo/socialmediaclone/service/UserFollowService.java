@@ -3,21 +3,44 @@ package com.github.leloxo.socialmediaclone.service;
 import com.github.leloxo.socialmediaclone.exception.ResourceNotFoundException;
 import com.github.leloxo.socialmediaclone.model.User;
 import com.github.leloxo.socialmediaclone.model.UserFollow;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.pagination.CursorPage;
+import com.github.leloxo.socialmediaclone.repository.FollowSummary;
 import com.github.leloxo.socialmediaclone.repository.UserFollowRepository;
 import com.github.leloxo.socialmediaclone.repository.UserRepository;
+import com.github.leloxo.socialmediaclone.util.SortedLongArrays;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class UserFollowService {
     private final UserRepository userRepository;
     private final UserFollowRepository userFollowRepository;
+    private final TimelineService timelineService;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final FollowGraph followGraph;
 
-    public UserFollowService(UserRepository userRepository, UserFollowRepository userFollowRepository) {
+    public UserFollowService(UserRepository userRepository, UserFollowRepository userFollowRepository, TimelineService timelineService, CacheInvalidationService cacheInvalidationService, FollowGraph followGraph) {
         this.userRepository = userRepository;
         this.userFollowRepository = userFollowRepository;
+        this.timelineService = timelineService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.followGraph = followGraph;
     }
 
     @Transactional
@@ -26,35 +49,57 @@ public class UserFollowService {
             throw new IllegalArgumentException("Users cannot follow themselves");
         }
 
-        if (userFollowRepository.existsByFollowerIdAndFollowingId(followerId, followingId)) {
+        lockFollowPair(followerId, followingId);
+        // The database decides whether the edge is new; the in-memory graph may lag behind other nodes
+        if (userFollowRepository.insertIfAbsent(followerId, followingId, LocalDateTime.now()) == 0) {
             return;
         }
 
-        User follower = userRepository.findById(followerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Follower user not found"));
-        User following = userRepository.findById(followingId)
-                .orElseThrow(() -> new ResourceNotFoundException("Target user not found"));
+        userRepository.addFollowCounts(followerId, followingId, 1);
+        followGraph.onFollow(followerId, followingId);
 
-        UserFollow userFollow = new UserFollow();
-        userFollow.setFollower(follower);
-        userFollow.setFollowing(following);
-        userFollowRepository.save(userFollow);
+        timelineService.onFollow(followerId, followingId);
+        cacheInvalidationService.evictFeed(followerId);
+        cacheInvalidationService.evictSuggestions(followerId);
     }
 
     @Transactional
     public void unfollowUser(Long followerId, Long followingId) throws ResourceNotFoundException {
-        if (!userRepository.existsById(followerId)) {
-            throw new ResourceNotFoundException("Follower user not found");
+        lockFollowPair(followerId, followingId);
+        // Not following is a no-op, unknown users were reported above
+        if (userFollowRepository.deleteByFollowerIdAndFollowingId(followerId, followingId) == 0) {
+            return;
         }
-        if (!userRepository.existsById(followingId)) {
+
+        userRepository.addFollowCounts(followerId, followingId, -1);
+        followGraph.onUnfollow(followerId, followingId);
+        timelineService.onUnfollow(followerId, followingId);
+        cacheInvalidationService.evictFeed(followerId);
+        cacheInvalidationService.evictSuggestions(followerId);
+    }
+
+    /**
+     * Locks both user rows before the follow edge is touched, always in ascending id order, so
+     * concurrent follows and unfollows between the same users queue up instead of deadlocking.
+     * Doubles as the existence check for both users.
+     */
+    private void lockFollowPair(Long followerId, Long followingId) throws ResourceNotFoundException {
+        List<Long> lockedIds = userRepository.lockFollowPair(followerId, followingId);
+        if (!lockedIds.contains(followingId)) {
             throw new ResourceNotFoundException("Target user not found");
         }
-
-        userFollowRepository.deleteByFollowerIdAndFollowingId(followerId, followingId);
+        if (!lockedIds.contains(followerId)) {
+            throw new ResourceNotFoundException("Follower user not found");
+        }
     }
 
     @Transactional(readOnly = true)
     public boolean isFollowing(Long followerId, Long followingId) throws ResourceNotFoundException {
+        // An existing edge implies both users exist, so only a negative answer needs the checks
+        if (followGraph.isEnabled() && followGraph.isFollowing(followerId, followingId)) {
+            return true;
+        }
+
         if (!userRepository.existsById(followerId)) {
             throw new ResourceNotFoundException("Follower user not found");
         }
@@ -65,6 +110,18 @@ public class UserFollowService {
         return userFollowRepository.existsByFollowerIdAndFollowingId(followerId, followingId);
     }
 
+    // Answers the follow status for a whole list of users with one query; unknown IDs are simply not followed
+    @Transactional(readOnly = true)
+    public Set<Long> getFollowedUserIds(Long followerId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        if (followGraph.isEnabled()) {
+            return followGraph.filterFollowed(followerId, userIds);
+        }
+        return new HashSet<>(userFollowRepository.findFollowedIds(followerId, userIds));
+    }
+
     @Transactional(readOnly = true)
     public List<User> getFollowers(Long userId) throws ResourceNotFoundException {
         if (!userRepository.existsById(userId)) {
@@ -74,13 +131,63 @@ public class UserFollowService {
         return userFollowRepository.findFollowersByFollowingId(userId);
     }
 
+    public CursorPage<FollowSummary> getFollowers(Long userId, Cursor cursor, int size) throws ResourceNotFoundException {
+        return toCursorPage(userId, userFollowRepository.findFollowerSummariesBefore(
+                userId, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size + 1)), size);
+    }
+
+    public CursorPage<FollowSummary> getFollowing(Long userId, Cursor cursor, int size) throws ResourceNotFoundException {
+        return toCursorPage(userId, userFollowRepository.findFollowingSummariesBefore(
+                userId, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size + 1)), size);
+    }
+
+    // Rows are fetched one past the page size; only an empty page needs the existence check
+    private CursorPage<FollowSummary> toCursorPage(Long userId, List<FollowSummary> rows, int size) throws ResourceNotFoundException {
+        if (rows.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        List<Cursor> keys = rows.stream()
+                .map(row -> new Cursor(row.getFollowedAt(), row.getFollowId()))
+                .collect(Collectors.toList());
+        return CursorPage.of(rows.subList(0, Math.min(size, rows.size())), keys, size);
+    }
+
+    /**
+     * Followers of {@code userId} that {@code viewerId} follows: the first {@code limit} of them
+     * as users, with the total number of mutual followers as the page total.
+     */
+    @Transactional(readOnly = true)
+    public Page<User> getMutualFollowers(Long viewerId, Long userId, int limit) throws ResourceNotFoundException {
+        long[] mutualIds = followGraph.isEnabled()
+                ? followGraph.getMutualFollowerIds(viewerId, userId)
+                : SortedLongArrays.of(userFollowRepository.findMutualFollowerIds(viewerId, userId));
+        if (mutualIds.length == 0 && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        List<Long> firstIds = Arrays.stream(mutualIds, 0, Math.min(limit, mutualIds.length)).boxed().toList();
+        Map<Long, User> usersById = userRepository.findAllById(firstIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<User> users = firstIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageImpl<>(users, PageRequest.of(0, limit), mutualIds.length);
+    }
+
     @Transactional(readOnly = true)
     public List<Long> getFollowerIds(Long userId) throws ResourceNotFoundException {
-        if (!userRepository.existsById(userId)) {
+        List<Long> followerIds = followGraph.isEnabled()
+                ? followGraph.getFollowerIds(userId)
+                : userFollowRepository.findFollowerIdsByFollowingId(userId);
+        // Any edge implies the user exists; only an empty result needs the check
+        if (followerIds.isEmpty() && !userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User not found");
         }
 
-        return userFollowRepository.findFollowerIdsByFollowingId(userId);
+        return followerIds;
     }
 
     @Transactional(readOnly = true)
@@ -94,30 +201,24 @@ public class UserFollowService {
 
     @Transactional(readOnly = true)
     public List<Long> getFollowingIds(Long userId) throws ResourceNotFoundException {
-        if (!userRepository.existsById(userId)) {
+        List<Long> followingIds = new ArrayList<>(followGraph.isEnabled()
+                ? followGraph.getFollowingIds(userId)
+                : userFollowRepository.findFollowingIdsByFollowerId(userId));
+        if (followingIds.isEmpty() && !userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User not found");
         }
 
-        List<Long> followingIds = userFollowRepository.findFollowingIdsByFollowerId(userId);
         followingIds.add(userId); // Include the current user's posts
         return followingIds;
     }
 
-    @Transactional(readOnly = true)
     public long getFollowersCount(Long userId) throws ResourceNotFoundException {
-        if (!userRepository.existsById(userId)) {
-            throw new ResourceNotFoundException("User not found");
-        }
-
-        return userFollowRepository.countByFollowingId(userId);
+        return userRepository.findFollowerCountById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
-    @Transactional(readOnly = true)
     public long getFollowingCount(Long userId) throws ResourceNotFoundException {
-        if (!userRepository.existsById(userId)) {
-            throw new ResourceNotFoundException("User not found");
-        }
-
-        return userFollowRepository.countByFollowerId(userId);
+        return userRepository.findFollowingCountById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 }
@@ -0,0 +1,213 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.repository.UserRepository;
+import com.github.leloxo.socialmediaclone.repository.UserSearchEntry;
+import com.github.leloxo.socialmediaclone.util.TransactionHooks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory typeahead index over usernames and names.
+ * <p>
+ * Every active user is indexed under their case- and accent-folded username, first name, last
+ * name and full name in a sorted map, so a prefix lookup is a range scan. Matches are ranked:
+ * exact username first, then username prefixes, then name prefixes, shorter usernames first.
+ * Signups and profile changes update the index after commit; a periodic rebuild picks up
+ * changes made on other nodes. A rebuild fills a fresh snapshot and swaps it in, so users that
+ * were deactivated or renamed elsewhere drop out. Until the first build completes, searches use
+ * a bounded username prefix query instead.
+ */
+@Service
+public class UserSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    // Sorts before every other character, so "ann" + SEPARATOR + id comes before "anna..."
+    private static final char SEPARATOR = '\u0000';
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${users.search.enabled:true}")
+    private boolean enabled;
+
+    // Prefix matches examined per query before ranking; bounds the cost of one-letter queries
+    @Value("${users.search.max-candidates:1000}")
+    private int maxCandidates;
+
+    @Value("${users.search.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    private volatile Snapshot snapshot = new Snapshot();
+    // The snapshot a running rebuild fills; local updates go into it too, so the swap cannot lose them
+    private volatile Snapshot building;
+    private volatile boolean loaded;
+
+    public UserSearchIndex(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("users.search.indexed", this, index -> index.snapshot.entries.size())
+                .description("Users held by the typeahead index")
+                .register(meterRegistry);
+    }
+
+    public List<UserSearchEntry> search(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        if (!enabled || !loaded) {
+            return userRepository.findSearchEntriesByUserNamePrefix(escapeLike(prefix), PageRequest.of(0, limit));
+        }
+
+        Snapshot current = snapshot;
+        Set<Long> candidateIds = new LinkedHashSet<>();
+        for (Long userId : current.terms.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            candidateIds.add(userId);
+            if (candidateIds.size() >= maxCandidates) {
+                break;
+            }
+        }
+
+        return candidateIds.stream()
+                .map(current.entries::get)
+                .filter(Objects::nonNull)
+                .sorted(ranking(prefix))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public void index(User user) {
+        if (!enabled || !user.isEnabled()) {
+            return;
+        }
+
+        UserSearchEntry entry = new UserSearchEntry(user.getId(), user.getDisplayUsername(),
+                user.getFirstName(), user.getLastName(), user.getProfileImageUrl());
+        TransactionHooks.afterCommit(() -> {
+            // Read before the snapshot: once the rebuild has stopped filling, the new snapshot is already in place
+            Snapshot filling = building;
+            snapshot.put(entry, true);
+            if (filling != null) {
+                filling.put(entry, true);
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "${users.search.rebuild-initial-delay:0}",
+            fixedDelayString = "${users.search.rebuild-interval:3600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        Snapshot fresh = new Snapshot();
+        building = fresh;
+        try {
+            Long afterId = 0L;
+            while (true) {
+                List<UserSearchEntry> batch = userRepository.findSearchEntriesAfter(afterId, PageRequest.of(0, loadBatchSize));
+                // A local update that reached the fresh snapshot first is newer than the row read here
+                batch.forEach(entry -> fresh.put(entry, false));
+
+                if (batch.size() < loadBatchSize) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+
+            snapshot = fresh;
+        } finally {
+            building = null;
+        }
+
+        loaded = true;
+        logger.info("Indexed {} users for search in {} ms", fresh.entries.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private static Set<String> keys(UserSearchEntry entry) {
+        return Stream.of(entry.getUserName(), entry.getFirstName(), entry.getLastName(),
+                        entry.getFirstName() + " " + entry.getLastName())
+                .map(UserSearchIndex::normalize)
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + SEPARATOR + entry.getId())
+                .collect(Collectors.toSet());
+    }
+
+    private static Comparator<UserSearchEntry> ranking(String prefix) {
+        return Comparator.<UserSearchEntry>comparingInt(entry -> {
+                    String userName = normalize(entry.getUserName());
+                    if (userName.equals(prefix)) {
+                        return 0;
+                    }
+                    return userName.startsWith(prefix) ? 1 : 2;
+                })
+                .thenComparingInt(entry -> entry.getUserName().length())
+                .thenComparing(UserSearchEntry::getUserName);
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    // Terms and entries of one build of the index
+    private static final class Snapshot {
+        // "term\0userId" -> userId
+        private final ConcurrentSkipListMap<String, Long> terms = new ConcurrentSkipListMap<>();
+        private final Map<Long, UserSearchEntry> entries = new ConcurrentHashMap<>();
+
+        // Replaces a user's terms, or keeps an existing entry unless replace is set; compute
+        // serializes concurrent updates of the same user
+        void put(UserSearchEntry entry, boolean replace) {
+            entries.compute(entry.getId(), (userId, previous) -> {
+                if (previous != null && !replace) {
+                    return previous;
+                }
+                Set<String> keys = keys(entry);
+                if (previous != null) {
+                    keys(previous).stream()
+                            .filter(key -> !keys.contains(key))
+                            .forEach(terms::remove);
+                }
+                keys.forEach(key -> terms.put(key, userId));
+                return entry;
+            });
+        }
+    }
+}
@@ -3,26 +3,49 @@ package com.github.leloxo.socialmediaclone.service;
 import com.github.leloxo.socialmediaclone.dto.request.UpdateUserDetailsRequest;
 import com.github.leloxo.socialmediaclone.exception.ResourceNotFoundException;
 import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.pagination.CursorPage;
 import com.github.leloxo.socialmediaclone.repository.UserRepository;
+import com.github.leloxo.socialmediaclone.repository.UserSearchEntry;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
 
-    public UserService(UserRepository userRepository) {
+    private final UserSearchIndex userSearchIndex;
+    private final UsernameAvailabilityService usernameAvailabilityService;
+
+    public UserService(UserRepository userRepository, UserSearchIndex userSearchIndex, UsernameAvailabilityService usernameAvailabilityService) {
         this.userRepository = userRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.usernameAvailabilityService = usernameAvailabilityService;
+    }
+
+    public CursorPage<User> getUsers(Cursor cursor, int size) {
+        List<User> users = userRepository.findUsersBefore(cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size + 1));
+        List<Cursor> keys = users.stream()
+                .map(user -> new Cursor(user.getCreatedAt(), user.getId()))
+                .collect(Collectors.toList());
+        return CursorPage.of(users.subList(0, Math.min(size, users.size())), keys, size);
     }
 
-    public List<User> allUsers() {
-        return new ArrayList<>(userRepository.findAll());
+    public List<UserSearchEntry> searchUsers(String query, int limit) {
+        return userSearchIndex.search(query, limit);
     }
 
-    public List<User> findUsersByUserName(String username) {
-        return userRepository.findByUserNameContainingIgnoreCase(username);
+    public List<User> findUsersByIds(Collection<Long> userIds) {
+        return userRepository.findAllById(userIds);
+    }
+
+    public User findUserById(Long userId) throws ResourceNotFoundException {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User with id '" + userId + "' not found"));
     }
 
     public User findUserByUserName(String username) throws ResourceNotFoundException {
@@ -31,7 +54,7 @@ public class UserService {
     }
 
     public boolean userExistsByUsername(String username) {
-        return userRepository.findByUserName(username).isPresent();
+        return usernameAvailabilityService.isTaken(username);
     }
 
     public User updateUser(Long userId, UpdateUserDetailsRequest details) throws ResourceNotFoundException {
@@ -45,6 +68,8 @@ public class UserService {
             user.setProfileImageUrl(details.getProfileImageUrl());
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSearchIndex.index(savedUser);
+        return savedUser;
     }
 }
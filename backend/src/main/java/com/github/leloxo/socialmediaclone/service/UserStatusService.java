@@ -0,0 +1,24 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.config.CacheNames;
+import com.github.leloxo.socialmediaclone.repository.UserRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers whether a user account is still active. Used by the stateless JWT authentication,
+ * which otherwise trusts the {@code active} claim for the whole lifetime of a token.
+ */
+@Service
+public class UserStatusService {
+    private final UserRepository userRepository;
+
+    public UserStatusService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Cacheable(value = CacheNames.USER_ACTIVE_STATUS, key = "#userId")
+    public boolean isActive(Long userId) {
+        return userRepository.findActiveById(userId).orElse(false);
+    }
+}
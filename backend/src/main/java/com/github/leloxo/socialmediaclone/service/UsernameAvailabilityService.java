@@ -0,0 +1,140 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.repository.UserRepository;
+import com.github.leloxo.socialmediaclone.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Answers whether a username is taken for the signup form's availability check.
+ * <p>
+ * All usernames are kept in a {@link BloomFilter}, so a name the filter has never seen is
+ * reported free without touching the database. Only probable hits run an {@code EXISTS} query
+ * on {@code idx_user_name}. The filter is rebuilt at startup and every
+ * {@code users.availability.rebuild-interval}, sized for twice the current user count, which
+ * also picks up signups made on other nodes. Until the first build completes every check
+ * queries the database. Signup itself is still guarded by the unique constraint, so a stale
+ * filter can only make the hint optimistic.
+ */
+@Service
+public class UsernameAvailabilityService {
+    private static final Logger logger = LoggerFactory.getLogger(UsernameAvailabilityService.class);
+
+    private final UserRepository userRepository;
+    private final Counter bloomNegatives;
+    private final Counter databaseHits;
+    private final Counter falsePositives;
+
+    @Value("${users.availability.bloom.enabled:true}")
+    private boolean enabled;
+
+    // Lower bound for the filter size; it grows with the user count on rebuild
+    @Value("${users.availability.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${users.availability.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${users.availability.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private volatile BloomFilter filter;
+    // Receives signups while a rebuild is loading, so the swap does not lose them
+    private volatile BloomFilter building;
+
+    public UsernameAvailabilityService(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.bloomNegatives = checkCounter(meterRegistry, "bloom-negative");
+        this.databaseHits = checkCounter(meterRegistry, "taken");
+        this.falsePositives = checkCounter(meterRegistry, "false-positive");
+        Gauge.builder("users.availability.bloom.memory", this, UsernameAvailabilityService::getMemoryUsageBytes)
+                .description("Heap used by the username Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("users.availability.checks")
+                .description("Username availability checks by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public boolean isTaken(String username) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(fold(username))) {
+            bloomNegatives.increment();
+            return false;
+        }
+
+        boolean taken = userRepository.existsByUserName(username);
+        if (current != null) {
+            (taken ? databaseHits : falsePositives).increment();
+        }
+        return taken;
+    }
+
+    public void onSignup(String username) {
+        String folded = fold(username);
+        BloomFilter current = filter;
+        BloomFilter next = building;
+        if (current != null) {
+            current.put(folded);
+        }
+        if (next != null) {
+            next.put(folded);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${users.availability.rebuild-initial-delay:0}",
+            fixedDelayString = "${users.availability.rebuild-interval:3600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        long userCount = userRepository.count();
+        BloomFilter next = BloomFilter.create(Math.max(expectedInsertions, userCount * 2), falsePositiveRate);
+        building = next;
+
+        try {
+            String afterUserName = "";
+            while (true) {
+                List<String> userNames = userRepository.findUserNamesAfter(afterUserName, PageRequest.of(0, loadBatchSize));
+                userNames.forEach(userName -> next.put(fold(userName)));
+
+                if (userNames.size() < loadBatchSize) {
+                    break;
+                }
+                afterUserName = userNames.get(userNames.size() - 1);
+            }
+            filter = next;
+        } finally {
+            building = null;
+        }
+
+        logger.info("Loaded {} usernames into a {} KB Bloom filter with {} hashes in {} ms",
+                userCount, next.sizeInBytes() / 1024, next.getHashCount(), System.currentTimeMillis() - startTime);
+    }
+
+    public long getMemoryUsageBytes() {
+        BloomFilter current = filter;
+        return current == null ? 0 : current.sizeInBytes();
+    }
+
+    // Username uniqueness follows the column's case-insensitive collation
+    private static String fold(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
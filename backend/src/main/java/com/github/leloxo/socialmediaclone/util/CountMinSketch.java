@@ -0,0 +1,77 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch over strings: {@link #estimate} never undercounts and overcounts by at most
+ * {@code e / width} of the total count with probability {@code 1 - e^-depth}, in a fixed
+ * {@code width * depth} counters however many distinct keys are counted.
+ * <p>
+ * Sketches of the same dimensions can be added and subtracted, which lets a sliding window keep
+ * one total next to its per-interval sketches. Not thread-safe.
+ */
+public final class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final int[] counts;
+    private long total;
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Count-Min Sketch needs a positive width and depth");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counts = new int[width * depth];
+    }
+
+    public void add(String key, int count) {
+        long hash = StringHash.hash(key);
+        long step = StringHash.step(hash);
+        for (int row = 0; row < depth; row++) {
+            counts[row * width + (int) Math.floorMod(hash + row * step, (long) width)] += count;
+        }
+        total += count;
+    }
+
+    public long estimate(String key) {
+        long hash = StringHash.hash(key);
+        long step = StringHash.step(hash);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[row * width + (int) Math.floorMod(hash + row * step, (long) width)]);
+        }
+        return estimate;
+    }
+
+    public void add(CountMinSketch other) {
+        merge(other, 1);
+    }
+
+    public void subtract(CountMinSketch other) {
+        merge(other, -1);
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long sizeInBytes() {
+        return (long) counts.length * Integer.BYTES;
+    }
+
+    private void merge(CountMinSketch other, int sign) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Sketches of different dimensions cannot be merged");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += sign * other.counts[i];
+        }
+        total += sign * other.total;
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * Expires a cache entry a fixed time after it was loaded. Unlike {@code expireAfterWrite},
+ * in-place updates do not extend the deadline, and unlike {@code expireAfterAccess}, neither do
+ * reads; an entry that is kept current by local updates is still reloaded in time to pick up
+ * changes made on other nodes.
+ */
+public final class ExpireAfterLoad<K, V> implements Expiry<K, V> {
+    private final long nanos;
+
+    public ExpireAfterLoad(Duration duration) {
+        this.nanos = duration.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(K key, V value, long currentTime) {
+        return nanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
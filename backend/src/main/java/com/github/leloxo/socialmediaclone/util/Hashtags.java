@@ -0,0 +1,55 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts {@code #tags} from captions. Tags are stored and looked up in normalized form:
+ * lowercase without accents, so "#Café" and "#cafe" are the same tag.
+ */
+public final class Hashtags {
+    public static final int MAX_LENGTH = 100;
+    public static final int MAX_PER_POST = 30;
+
+    // A '#' that does not continue a word, followed by letters, digits or underscores
+    private static final Pattern HASHTAG = Pattern.compile("(?<![\\p{L}\\p{N}_&#])#([\\p{L}\\p{M}\\p{N}_]+)");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern VALID = Pattern.compile("[\\p{L}\\p{N}_]*\\p{L}[\\p{L}\\p{N}_]*");
+
+    private Hashtags() {
+    }
+
+    // Distinct normalized tags in order of appearance; numbers like "#1" are not tags
+    public static Set<String> extract(String caption) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (caption == null) {
+            return tags;
+        }
+
+        Matcher matcher = HASHTAG.matcher(caption);
+        while (matcher.find() && tags.size() < MAX_PER_POST) {
+            String tag = normalize(matcher.group(1));
+            if (tag != null) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    // Returns null for values that are not a valid tag; a leading '#' is ignored
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String tag = value.startsWith("#") ? value.substring(1) : value;
+        tag = DIACRITICS.matcher(Normalizer.normalize(tag, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return tag.length() <= MAX_LENGTH && VALID.matcher(tag).matches() ? tag : null;
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Postings of one term: ascending document IDs with a term frequency each, stored as
+ * variable-length deltas, so a posting usually takes two or three bytes instead of twelve.
+ * <p>
+ * Writers are serialized; readers decode an immutable view that is published after each
+ * write and never see a half-written posting. IDs normally arrive in ascending order and are
+ * appended; an out-of-order ID re-encodes the list.
+ */
+public final class PostingList {
+    @FunctionalInterface
+    public interface PostingConsumer {
+        void accept(long documentId, int termFrequency);
+    }
+
+    private static final class View {
+        private final byte[] data;
+        private final int length;
+        private final int count;
+        private final long lastId;
+
+        private View(byte[] data, int length, int count, long lastId) {
+            this.data = data;
+            this.length = length;
+            this.count = count;
+            this.lastId = lastId;
+        }
+    }
+
+    private volatile View view;
+
+    public PostingList() {
+        this.view = new View(new byte[8], 0, 0, 0);
+    }
+
+    private PostingList(View view) {
+        this.view = view;
+    }
+
+    public static PostingList fromBytes(byte[] data, int count, long lastId) {
+        return new PostingList(new View(data, data.length, count, lastId));
+    }
+
+    // Returns false if the document was already listed
+    public synchronized boolean add(long documentId, int termFrequency) {
+        View current = view;
+        if (documentId > current.lastId || current.count == 0) {
+            byte[] data = current.data;
+            // At most 10 bytes per varint; bytes past length are invisible to readers until published
+            if (current.length + 20 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, current.length + 20));
+            }
+            int length = writeVarLong(data, current.length, documentId - current.lastId);
+            length = writeVarLong(data, length, termFrequency);
+            view = new View(data, length, current.count + 1, documentId);
+            return true;
+        }
+
+        long[] ids = new long[current.count + 1];
+        int[] frequencies = new int[current.count + 1];
+        decode(current, ids, frequencies);
+        int slot = Arrays.binarySearch(ids, 0, current.count, documentId);
+        if (slot >= 0) {
+            return false;
+        }
+
+        slot = -slot - 1;
+        System.arraycopy(ids, slot, ids, slot + 1, current.count - slot);
+        System.arraycopy(frequencies, slot, frequencies, slot + 1, current.count - slot);
+        ids[slot] = documentId;
+        frequencies[slot] = termFrequency;
+        view = encode(ids, frequencies, current.count + 1);
+        return true;
+    }
+
+    /**
+     * Drops the postings of documents that fail the predicate and returns how many were dropped.
+     */
+    public synchronized int retainAll(LongPredicate live) {
+        View current = view;
+        long[] ids = new long[current.count];
+        int[] frequencies = new int[current.count];
+        int[] size = {0};
+        forEach(current, (id, frequency) -> {
+            if (live.test(id)) {
+                ids[size[0]] = id;
+                frequencies[size[0]++] = frequency;
+            }
+        });
+
+        int removed = current.count - size[0];
+        if (removed > 0) {
+            view = encode(ids, frequencies, size[0]);
+        }
+        return removed;
+    }
+
+    public void forEach(PostingConsumer consumer) {
+        forEach(view, consumer);
+    }
+
+    public int size() {
+        return view.count;
+    }
+
+    public long lastId() {
+        return view.lastId;
+    }
+
+    public byte[] toBytes() {
+        View current = view;
+        return Arrays.copyOf(current.data, current.length);
+    }
+
+    // Heap footprint of the encoded postings including the array header
+    public int sizeInBytes() {
+        return 16 + view.data.length;
+    }
+
+    private static void forEach(View view, PostingConsumer consumer) {
+        byte[] data = view.data;
+        int position = 0;
+        long id = 0;
+        for (int i = 0; i < view.count; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            int frequency = 0;
+            shift = 0;
+            do {
+                b = data[position++];
+                frequency |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            id += delta;
+            consumer.accept(id, frequency);
+        }
+    }
+
+    private static void decode(View view, long[] ids, int[] frequencies) {
+        int[] size = {0};
+        forEach(view, (id, frequency) -> {
+            ids[size[0]] = id;
+            frequencies[size[0]++] = frequency;
+        });
+    }
+
+    private static View encode(long[] ids, int[] frequencies, int size) {
+        byte[] data = new byte[Math.max(8, size * 20)];
+        int length = 0;
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            length = writeVarLong(data, length, ids[i] - previous);
+            length = writeVarLong(data, length, frequencies[i]);
+            previous = ids[i];
+        }
+        return new View(Arrays.copyOf(data, Math.max(8, length)), length, size, previous);
+    }
+
+    private static int writeVarLong(byte[] data, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            data[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[position++] = (byte) value;
+        return position;
+    }
+}
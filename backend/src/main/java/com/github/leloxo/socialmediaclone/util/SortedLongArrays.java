@@ -0,0 +1,125 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Helpers for sets of IDs stored as sorted {@code long[]}. The arrays are treated as immutable:
+ * updates return a new array, so readers never need a lock.
+ */
+public final class SortedLongArrays {
+    public static final long[] EMPTY = new long[0];
+
+    // Size ratio from which galloping beats a linear merge
+    private static final int GALLOP_RATIO = 16;
+
+    private SortedLongArrays() {
+    }
+
+    public static long[] of(Collection<Long> values) {
+        long[] array = values.stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        return array.length == 0 ? EMPTY : array;
+    }
+
+    public static boolean contains(long[] array, long value) {
+        return Arrays.binarySearch(array, value) >= 0;
+    }
+
+    // Returns the same array if the value is already present
+    public static long[] insert(long[] array, long value) {
+        int index = Arrays.binarySearch(array, value);
+        if (index >= 0) {
+            return array;
+        }
+
+        int insertAt = -index - 1;
+        long[] result = new long[array.length + 1];
+        System.arraycopy(array, 0, result, 0, insertAt);
+        result[insertAt] = value;
+        System.arraycopy(array, insertAt, result, insertAt + 1, array.length - insertAt);
+        return result;
+    }
+
+    // Returns the same array if the value is not present
+    public static long[] remove(long[] array, long value) {
+        int index = Arrays.binarySearch(array, value);
+        if (index < 0) {
+            return array;
+        }
+        if (array.length == 1) {
+            return EMPTY;
+        }
+
+        long[] result = new long[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    /**
+     * Values present in both arrays, in order. Similar sizes are merged in one linear pass; when
+     * one array is much larger, each value of the smaller one gallops (exponential then binary
+     * search) forward through the larger one, which costs O(small * log(large / small)).
+     */
+    public static long[] intersect(long[] first, long[] second) {
+        long[] small = first.length <= second.length ? first : second;
+        long[] large = small == first ? second : first;
+        if (small.length == 0) {
+            return EMPTY;
+        }
+
+        long[] result = new long[small.length];
+        int count = large.length / small.length >= GALLOP_RATIO
+                ? gallop(small, large, result)
+                : merge(small, large, result);
+        return count == 0 ? EMPTY : Arrays.copyOf(result, count);
+    }
+
+    private static int merge(long[] small, long[] large, long[] result) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        // Branch-free steps: on random IDs the comparisons are unpredictable, so branches mispredict half the time
+        while (i < small.length && j < large.length) {
+            long a = small[i];
+            long b = large[j];
+            result[count] = a;
+            count += a == b ? 1 : 0;
+            i += a <= b ? 1 : 0;
+            j += a >= b ? 1 : 0;
+        }
+        return count;
+    }
+
+    private static int gallop(long[] small, long[] large, long[] result) {
+        int count = 0;
+        int low = 0;
+        for (long value : small) {
+            int step = 1;
+            while (low + step < large.length && large[low + step] < value) {
+                step <<= 1;
+            }
+
+            int index = Arrays.binarySearch(large, low, Math.min(low + step + 1, large.length), value);
+            if (index >= 0) {
+                result[count++] = value;
+                low = index + 1;
+            } else {
+                low = -index - 1;
+            }
+            if (low >= large.length) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    // Approximate heap footprint of the array including its header
+    public static int sizeInBytes(long[] array) {
+        return 16 + array.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.leloxo.socialmediaclone.util;
+
+/**
+ * 64-bit string hashing for the probabilistic structures in this package: FNV-1a over the
+ * chars, finished with a 64-bit mix so nearby strings spread over all bits. Several positions
+ * are derived by double hashing, {@code hash + i * step(hash)}.
+ */
+final class StringHash {
+    private StringHash() {
+    }
+
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // Odd, so the positions do not cycle early for even table sizes
+    static long step(long hash) {
+        return mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects of a write until its transaction has committed, so a rolled
+ * back write never reaches caches or indexes.
+ */
+public final class TransactionHooks {
+    private TransactionHooks() {
+    }
+
+    // Runs the action at once when no transaction is active
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
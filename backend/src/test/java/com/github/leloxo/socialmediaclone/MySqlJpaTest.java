@@ -0,0 +1,26 @@
+package com.github.leloxo.socialmediaclone;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link DataJpaTest} against an in-memory H2 database in MySQL mode, so the native queries
+ * written for MySQL ({@code INSERT IGNORE}, backticked names) run unchanged. Every test context
+ * gets a database of its own; extra properties go into {@code @TestPropertySource}. Fixtures are
+ * persisted through the imported {@link TestEntities}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestEntities.class)
+public @interface MySqlJpaTest {
+}
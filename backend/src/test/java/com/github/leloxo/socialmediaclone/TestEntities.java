@@ -0,0 +1,62 @@
+package com.github.leloxo.socialmediaclone;
+
+import com.github.leloxo.socialmediaclone.model.Comment;
+import com.github.leloxo.socialmediaclone.model.Post;
+import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.model.UserFollow;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Persists test entities with only their required fields set. Each entity is flushed right away,
+ * so native queries and bulk updates in the test see it.
+ */
+public class TestEntities {
+    private final EntityManager entityManager;
+
+    public TestEntities(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public User user(String userName) {
+        User user = new User();
+        user.setFirstName(userName);
+        user.setLastName(userName);
+        user.setUserName(userName);
+        user.setEmail(userName + "@example.com");
+        user.setPassword("password");
+        return persist(user);
+    }
+
+    public Post post(User author) {
+        return post(author, null);
+    }
+
+    public Post post(User author, String caption) {
+        Post post = new Post();
+        post.setAuthor(author);
+        post.setCaption(caption);
+        post.setImageUrl("https://example.com/post.png");
+        return persist(post);
+    }
+
+    public Comment comment(User author, Post post, String content) {
+        Comment comment = new Comment();
+        comment.setAuthor(author);
+        comment.setPost(post);
+        comment.setContent(content);
+        return persist(comment);
+    }
+
+    public UserFollow follow(User follower, User following) {
+        UserFollow follow = new UserFollow();
+        follow.setFollower(follower);
+        follow.setFollowing(following);
+        return persist(follow);
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        entityManager.flush();
+        return entity;
+    }
+}
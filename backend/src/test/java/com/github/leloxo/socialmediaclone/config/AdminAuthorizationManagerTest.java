@@ -0,0 +1,26 @@
+package com.github.leloxo.socialmediaclone.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdminAuthorizationManagerTest {
+    private final AdminAuthorizationManager manager = new AdminAuthorizationManager(List.of(" Admin@Example.com ", ""));
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void onlyConfiguredEmailsAreAdmins() {
+        assertThat(manager.check(() -> authenticated("admin@example.com"), null).isGranted()).isTrue();
+        assertThat(manager.check(() -> authenticated("user@example.com"), null).isGranted()).isFalse();
+        assertThat(manager.check(() -> null, null).isGranted()).isFalse();
+    }
+
+    private static Authentication authenticated(String email) {
+        JwtUserPrincipal principal = new JwtUserPrincipal(1L, email, "user", true);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
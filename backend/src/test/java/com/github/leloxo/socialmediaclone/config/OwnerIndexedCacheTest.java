@@ -0,0 +1,46 @@
+package com.github.leloxo.socialmediaclone.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OwnerIndexedCacheTest {
+    @Test
+    void evictingAnOwnerRemovesOnlyThatOwnersPages() {
+        OwnerIndexedCache.KeyIndex keyIndex = new OwnerIndexedCache.KeyIndex();
+        OwnerIndexedCache cache = new OwnerIndexedCache("feed", Caffeine.newBuilder().build(), true, keyIndex);
+        PageCacheKey first = new PageCacheKey(1L, 0, 10, "UNSORTED");
+        PageCacheKey second = new PageCacheKey(1L, 1, 10, "UNSORTED");
+        PageCacheKey other = new PageCacheKey(2L, 0, 10, "UNSORTED");
+        cache.put(first, "a");
+        cache.get(second, () -> "b");
+        cache.put(other, "c");
+
+        cache.evictOwners(List.of(1L));
+
+        assertThat(cache.get(first)).isNull();
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(other)).isNotNull();
+        assertThat(keyIndex.removeOwner(1L)).isEmpty();
+    }
+
+    @Test
+    void pagesEvictedBySizeLeaveTheIndex() {
+        OwnerIndexedCache.KeyIndex keyIndex = new OwnerIndexedCache.KeyIndex();
+        OwnerIndexedCache cache = new OwnerIndexedCache("feed", Caffeine.newBuilder()
+                .maximumSize(1)
+                .executor(Runnable::run)
+                .evictionListener((key, value, cause) -> keyIndex.remove(key))
+                .build(), true, keyIndex);
+
+        cache.put(new PageCacheKey(1L, 0, 10, "UNSORTED"), "a");
+        cache.put(new PageCacheKey(2L, 0, 10, "UNSORTED"), "b");
+        cache.getNativeCache().cleanUp();
+
+        assertThat(cache.getNativeCache().estimatedSize()).isEqualTo(1);
+        assertThat(keyIndex.removeOwner(1L).size() + keyIndex.removeOwner(2L).size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import com.github.leloxo.socialmediaclone.MySqlJpaTest;
+import com.github.leloxo.socialmediaclone.TestEntities;
+import com.github.leloxo.socialmediaclone.model.Comment;
+import com.github.leloxo.socialmediaclone.model.Post;
+import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MySqlJpaTest
+class CommentRepositoryTest {
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestEntities entities;
+
+    @Test
+    void keysetQueryWalksTheCommentsOfOnePostNewestFirst() {
+        User author = entities.user("commenter");
+        Post post = entities.post(author);
+        Post otherPost = entities.post(author);
+        for (int i = 0; i < 10; i++) {
+            entities.comment(author, post, "comment " + i);
+            entities.comment(author, otherPost, "other " + i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Comment> seen = new ArrayList<>();
+        Cursor cursor = Cursor.start();
+        while (true) {
+            List<Comment> comments = commentRepository.findByPostIdBefore(
+                    post.getId(), cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, PAGE_SIZE));
+            if (comments.isEmpty()) {
+                break;
+            }
+            assertThat(comments).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            seen.addAll(comments);
+            Comment last = comments.get(comments.size() - 1);
+            cursor = new Cursor(last.getCreatedAt(), last.getId());
+        }
+
+        assertThat(seen).hasSize(10).doesNotHaveDuplicates();
+        assertThat(seen).allSatisfy(comment -> assertThat(comment.getContent()).startsWith("comment"));
+        assertThat(seen).extracting(Comment::getCreatedAt).isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+
+    @Test
+    void deleteOnlyRemovesTheAuthorsCommentOfThatPost() {
+        User author = entities.user("commenter");
+        Post post = entities.post(author);
+        Post otherPost = entities.post(author);
+        Comment comment = entities.comment(author, post, "comment");
+        entityManager.flush();
+
+        assertThat(commentRepository.deleteByIdAndPostIdAndAuthorId(comment.getId(), otherPost.getId(), author.getId())).isZero();
+        assertThat(commentRepository.deleteByIdAndPostIdAndAuthorId(comment.getId(), post.getId(), Long.MAX_VALUE)).isZero();
+        assertThat(commentRepository.deleteByIdAndPostIdAndAuthorId(comment.getId(), post.getId(), author.getId())).isEqualTo(1);
+        assertThat(commentRepository.count()).isZero();
+    }
+}
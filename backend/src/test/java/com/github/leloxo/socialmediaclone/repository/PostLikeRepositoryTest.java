@@ -0,0 +1,47 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import com.github.leloxo.socialmediaclone.MySqlJpaTest;
+import com.github.leloxo.socialmediaclone.TestEntities;
+import com.github.leloxo.socialmediaclone.model.Post;
+import com.github.leloxo.socialmediaclone.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MySqlJpaTest
+class PostLikeRepositoryTest {
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private TestEntities entities;
+
+    @Test
+    void likeIsInsertedOnlyOnce() {
+        User user = entities.user("liker");
+        Post post = entities.post(user);
+
+        assertThat(postLikeRepository.insertIfAbsent(post.getId(), user.getId())).isEqualTo(1);
+        assertThat(postLikeRepository.insertIfAbsent(post.getId(), user.getId())).isZero();
+        assertThat(postLikeRepository.existsByPostIdAndUserId(post.getId(), user.getId())).isTrue();
+    }
+
+    @Test
+    void likingAMissingPostChangesNothing() {
+        User user = entities.user("liker");
+
+        assertThat(postLikeRepository.insertIfAbsent(Long.MAX_VALUE, user.getId())).isZero();
+        assertThat(postLikeRepository.count()).isZero();
+    }
+
+    @Test
+    void unlikeReportsWhetherALikeWasRemoved() {
+        User user = entities.user("liker");
+        Post post = entities.post(user);
+        postLikeRepository.insertIfAbsent(post.getId(), user.getId());
+
+        assertThat(postLikeRepository.deleteByPostIdAndUserId(post.getId(), user.getId())).isEqualTo(1);
+        assertThat(postLikeRepository.deleteByPostIdAndUserId(post.getId(), user.getId())).isZero();
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import com.github.leloxo.socialmediaclone.MySqlJpaTest;
+import com.github.leloxo.socialmediaclone.TestEntities;
+import com.github.leloxo.socialmediaclone.model.Comment;
+import com.github.leloxo.socialmediaclone.model.Post;
+import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MySqlJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PostRepositoryTest {
+    private static final int PAGE_SIZE = 5;
+    private static final int COMMENTS_PER_POST = 3;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestEntities entities;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 200})
+    void pagedAuthorQueryLoadsOnlyThePostsOfThePage(int postCount) {
+        User author = entities.user("author");
+        for (int i = 0; i < postCount; i++) {
+            persistPost(author, "post " + i);
+        }
+
+        Statistics statistics = resetStatistics();
+        Pageable pageable = PageRequest.of(1, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        Page<Long> postIds = postRepository.findIdsByAuthorUserName(author.getDisplayUsername(), pageable);
+        List<Post> posts = postRepository.findAllWithAuthorByIdIn(postIds.getContent());
+
+        assertThat(postIds.getTotalElements()).isEqualTo(postCount);
+        assertThat(posts).hasSize(PAGE_SIZE);
+        assertThat(statistics.getEntityStatistics(Post.class.getName()).getLoadCount()).isEqualTo(PAGE_SIZE);
+        assertThat(statistics.getEntityStatistics(Comment.class.getName()).getLoadCount()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 200})
+    void pagedFeedQueryLoadsOnlyThePostsOfThePage(int postCount) {
+        User first = entities.user("first");
+        User second = entities.user("second");
+        for (int i = 0; i < postCount; i++) {
+            persistPost(i % 2 == 0 ? first : second, "post " + i);
+        }
+
+        Statistics statistics = resetStatistics();
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        Page<Long> postIds = postRepository.findIdsByAuthorIdIn(List.of(first.getId(), second.getId()), pageable);
+        List<Post> posts = postRepository.findAllWithAuthorByIdIn(postIds.getContent());
+
+        assertThat(postIds.getTotalElements()).isEqualTo(postCount);
+        assertThat(posts).hasSize(PAGE_SIZE);
+        assertThat(statistics.getEntityStatistics(Post.class.getName()).getLoadCount()).isEqualTo(PAGE_SIZE);
+        assertThat(statistics.getEntityStatistics(Comment.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void pageCountsAreLoadedWithOneStatement() {
+        User author = entities.user("author");
+        List<Long> postIds = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            postIds.add(entities.post(author).getId());
+        }
+
+        Statistics statistics = resetStatistics();
+        List<PostCounts> counts = postRepository.findCountsByIdIn(postIds);
+
+        assertThat(counts).extracting(PostCounts::getId).containsExactlyInAnyOrderElementsOf(postIds);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(Post.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void keysetQueryWalksEveryPostExactlyOnce() {
+        User author = entities.user("author");
+        for (int i = 0; i < 12; i++) {
+            persistPost(author, "post " + i);
+        }
+        resetStatistics();
+
+        List<Long> seen = new ArrayList<>();
+        Cursor cursor = Cursor.start();
+        while (true) {
+            List<Cursor> keys = postRepository.findKeysByAuthorUserNameBefore(
+                    author.getDisplayUsername(), cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, PAGE_SIZE));
+            if (keys.isEmpty()) {
+                break;
+            }
+            keys.forEach(key -> seen.add(key.getId()));
+            cursor = Cursor.decode(keys.get(keys.size() - 1).encode());
+        }
+
+        assertThat(seen).hasSize(12).doesNotHaveDuplicates();
+    }
+
+    private Statistics resetStatistics() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private void persistPost(User author, String caption) {
+        Post post = entities.post(author, caption);
+        for (int i = 0; i < COMMENTS_PER_POST; i++) {
+            entities.comment(author, post, "comment " + i);
+        }
+    }
+}
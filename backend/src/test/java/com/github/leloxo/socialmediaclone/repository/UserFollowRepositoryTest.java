@@ -0,0 +1,100 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import com.github.leloxo.socialmediaclone.MySqlJpaTest;
+import com.github.leloxo.socialmediaclone.TestEntities;
+import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MySqlJpaTest
+class UserFollowRepositoryTest {
+    @Autowired
+    private UserFollowRepository userFollowRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestEntities entities;
+
+    @Test
+    void followerPagesWalkEveryFollowerOnceNewestFirst() {
+        User followed = entities.user("followed");
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User follower = entities.user("follower" + i);
+            entities.follow(follower, followed);
+            expected.add(0, follower.getId());
+        }
+        // Not a follower of followed, must never appear
+        entities.follow(followed, entities.user("other"));
+        entityManager.clear();
+
+        List<Long> walked = new ArrayList<>();
+        Cursor cursor = Cursor.start();
+        List<FollowSummary> page;
+        do {
+            page = userFollowRepository.findFollowerSummariesBefore(
+                    followed.getId(), cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, 2));
+            page.forEach(follow -> walked.add(follow.getUserId()));
+            if (!page.isEmpty()) {
+                FollowSummary last = page.get(page.size() - 1);
+                cursor = new Cursor(last.getFollowedAt(), last.getFollowId());
+            }
+        } while (page.size() == 2);
+
+        assertThat(walked).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void followingSummariesSelectTheFollowedUser() {
+        User follower = entities.user("fan");
+        User followed = entities.user("star");
+        entities.follow(follower, followed);
+        entityManager.clear();
+
+        Cursor cursor = Cursor.start();
+        List<FollowSummary> following = userFollowRepository.findFollowingSummariesBefore(
+                follower.getId(), cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, 10));
+
+        assertThat(following).singleElement().satisfies(follow -> {
+            assertThat(follow.getUserId()).isEqualTo(followed.getId());
+            assertThat(follow.getUserName()).isEqualTo("star");
+        });
+    }
+
+    @Test
+    void mutualFollowersAreFollowersTheViewerFollows() {
+        User viewer = entities.user("viewer");
+        User profile = entities.user("profile");
+        User both = entities.user("both");
+        User onlyFollowsProfile = entities.user("fanonly");
+        User onlyFollowedByViewer = entities.user("friendonly");
+        entities.follow(viewer, both);
+        entities.follow(viewer, onlyFollowedByViewer);
+        entities.follow(both, profile);
+        entities.follow(onlyFollowsProfile, profile);
+
+        assertThat(userFollowRepository.findMutualFollowerIds(viewer.getId(), profile.getId()))
+                .containsExactly(both.getId());
+    }
+
+    @Test
+    void insertIfAbsentAddsAnEdgeOnlyOnce() {
+        User follower = entities.user("twice");
+        User followed = entities.user("once");
+
+        assertThat(userFollowRepository.insertIfAbsent(follower.getId(), followed.getId(), LocalDateTime.now())).isEqualTo(1);
+        assertThat(userFollowRepository.insertIfAbsent(follower.getId(), followed.getId(), LocalDateTime.now())).isZero();
+        assertThat(userFollowRepository.existsByFollowerIdAndFollowingId(follower.getId(), followed.getId())).isTrue();
+    }
+}
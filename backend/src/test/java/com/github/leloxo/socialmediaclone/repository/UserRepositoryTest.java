@@ -0,0 +1,92 @@
+package com.github.leloxo.socialmediaclone.repository;
+
+import com.github.leloxo.socialmediaclone.MySqlJpaTest;
+import com.github.leloxo.socialmediaclone.TestEntities;
+import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MySqlJpaTest
+class UserRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestEntities entities;
+
+    @Test
+    void followCountsMoveBothSidesInOneUpdate() {
+        User follower = entities.user("follower");
+        User followed = entities.user("followed");
+
+        assertThat(userRepository.addFollowCounts(follower.getId(), followed.getId(), 1)).isEqualTo(2);
+        entityManager.clear();
+
+        assertThat(userRepository.findFollowingCountById(follower.getId())).contains(1L);
+        assertThat(userRepository.findFollowerCountById(follower.getId())).contains(0L);
+        assertThat(userRepository.findFollowerCountById(followed.getId())).contains(1L);
+        assertThat(userRepository.findFollowingCountById(followed.getId())).contains(0L);
+    }
+
+    @Test
+    void lockingAFollowPairReportsOnlyExistingUsers() {
+        User user = entities.user("locked");
+
+        assertThat(userRepository.lockFollowPair(user.getId(), Long.MAX_VALUE)).containsExactly(user.getId());
+    }
+
+    @Test
+    void reconcileRewritesOnlyDriftedUsersInTheRange() {
+        User first = entities.user("first");
+        User second = entities.user("second");
+        User third = entities.user("third");
+        entities.follow(first, second);
+        entities.follow(third, second);
+        // first's following count is right, second's follower count drifts to 5
+        userRepository.addFollowCounts(first.getId(), second.getId(), 1);
+        userRepository.addFollowCounts(third.getId(), second.getId(), 4);
+
+        int repaired = userRepository.reconcileFollowCounts(0L, second.getId());
+        entityManager.clear();
+
+        // first was already correct; third is outside the range and keeps its drift
+        assertThat(repaired).isEqualTo(1);
+        assertThat(userRepository.findFollowerCountById(second.getId())).contains(2L);
+        assertThat(userRepository.findFollowingCountById(first.getId())).contains(1L);
+        assertThat(userRepository.findFollowingCountById(third.getId())).contains(4L);
+    }
+
+    @Test
+    void usernamePrefixSearchEscapesWildcards() {
+        entities.user("ab_cd");
+        entities.user("abxcd");
+
+        assertThat(userRepository.findSearchEntriesByUserNamePrefix("ab!_", PageRequest.of(0, 10)))
+                .extracting(UserSearchEntry::getUserName)
+                .containsExactly("ab_cd");
+    }
+
+    @Test
+    void directoryPagesWalkUsersNewestFirst() {
+        User first = entities.user("oldest");
+        User second = entities.user("middle");
+        User third = entities.user("newest");
+
+        List<User> firstPage = userRepository.findUsersBefore(Cursor.start().getCreatedAt(), Cursor.start().getId(), PageRequest.of(0, 2));
+        User last = firstPage.get(firstPage.size() - 1);
+        List<User> secondPage = userRepository.findUsersBefore(last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+
+        assertThat(firstPage).extracting(User::getId).containsExactly(third.getId(), second.getId());
+        assertThat(secondPage).extracting(User::getId).containsExactly(first.getId());
+    }
+}
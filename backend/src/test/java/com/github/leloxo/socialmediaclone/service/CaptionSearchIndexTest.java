@@ -0,0 +1,130 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.repository.PostCaption;
+import com.github.leloxo.socialmediaclone.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CaptionSearchIndexTest {
+    @TempDir
+    Path directory;
+
+    private PostRepository postRepository;
+    private CaptionSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        when(postRepository.findCaptionsAfter(any(), any(Pageable.class))).thenReturn(List.of());
+        index = newIndex();
+    }
+
+    private CaptionSearchIndex newIndex() {
+        CaptionSearchIndex searchIndex = new CaptionSearchIndex(postRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(searchIndex, "enabled", true);
+        ReflectionTestUtils.setField(searchIndex, "recencyHalfLife", Duration.ofDays(7));
+        ReflectionTestUtils.setField(searchIndex, "recencyWeight", 1.0);
+        ReflectionTestUtils.setField(searchIndex, "catchUpBatchSize", 100);
+        ReflectionTestUtils.setField(searchIndex, "catchUpOverlap", 10L);
+        ReflectionTestUtils.setField(searchIndex, "snapshotPath", directory.resolve("captions.bin").toString());
+        return searchIndex;
+    }
+
+    @Test
+    void tokenizerFoldsCaseAndAccentsAndDropsStopWords() {
+        assertThat(CaptionSearchIndex.tokenize("Café at the #Beach, São Paulo!"))
+                .containsExactly("cafe", "beach", "sao", "paulo");
+    }
+
+    @Test
+    void rankingPrefersMoreMatchingWordsThenNewerPosts() {
+        LocalDateTime now = LocalDateTime.now();
+        index.add(1L, "sunset over the beach", now.minusDays(1));
+        index.add(2L, "sunset", now.minusDays(30));
+        index.add(3L, "beach day", now);
+        index.add(4L, "mountain lake", now);
+
+        assertThat(index.search("beach sunset", 10)).containsExactly(1L, 3L, 2L);
+        assertThat(index.search("beach sunset", 1)).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("beach sunset", 10)).containsExactly(3L, 2L);
+        assertThat(index.compact()).isEqualTo(3);
+    }
+
+    @Test
+    void snapshotRestoresTheIndexAndCatchUpResumesAfterItsWatermark() {
+        LocalDateTime now = LocalDateTime.now();
+        when(postRepository.findCaptionsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new PostCaption(1L, "coffee with friends", now),
+                new PostCaption(2L, "morning coffee", now)));
+        index.catchUp();
+        index.remove(1L);
+        index.writeSnapshot(directory.resolve("captions.bin"));
+
+        CaptionSearchIndex restored = newIndex();
+        when(postRepository.findCaptionsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new PostCaption(2L, "morning coffee", now),
+                new PostCaption(3L, "coffee beans", now)));
+        restored.catchUp();
+
+        assertThat(restored.search("coffee", 10)).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(restored.search("friends", 10)).isEmpty();
+        assertThat(restored.search("morning", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void compactionDuringAddsKeepsEveryNewPost() throws Exception {
+        int posts = 5_000;
+        AtomicBoolean adding = new AtomicBoolean(true);
+        Thread compactor = new Thread(() -> {
+            while (adding.get()) {
+                index.compact();
+            }
+        });
+        compactor.start();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (long postId = 1; postId <= posts; postId++) {
+            index.add(postId, "shared word" + postId, now);
+        }
+        adding.set(false);
+        compactor.join();
+        index.compact();
+
+        for (long postId = 1; postId <= posts; postId++) {
+            assertThat(index.search("word" + postId, 10)).containsExactly(postId);
+        }
+        assertThat(index.search("shared", posts)).hasSize(posts);
+    }
+
+    @Test
+    void snapshotLoadKeepsPostsIndexedBeforeIt() {
+        LocalDateTime now = LocalDateTime.now();
+        index.add(1L, "coffee with friends", now);
+        index.writeSnapshot(directory.resolve("captions.bin"));
+
+        CaptionSearchIndex restored = newIndex();
+        // Created right after startup, before the first catch-up loads the snapshot
+        restored.add(2L, "coffee beans", now);
+        restored.catchUp();
+
+        assertThat(restored.search("coffee", 10)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(restored.search("beans", 10)).containsExactly(2L);
+    }
+}
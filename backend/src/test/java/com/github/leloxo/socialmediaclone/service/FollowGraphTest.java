@@ -0,0 +1,91 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.repository.FollowEdge;
+import com.github.leloxo.socialmediaclone.repository.UserFollowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FollowGraphTest {
+    private UserFollowRepository userFollowRepository;
+    private FollowGraph followGraph;
+
+    @BeforeEach
+    void setUp() {
+        userFollowRepository = mock(UserFollowRepository.class);
+        followGraph = new FollowGraph(userFollowRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(followGraph, "maxWeightBytes", 1_000_000L);
+        ReflectionTestUtils.setField(followGraph, "maxEdgesPerUser", 3);
+        ReflectionTestUtils.setField(followGraph, "expireAfterWrite", Duration.ofMinutes(1));
+        followGraph.init();
+    }
+
+    @Test
+    void loadedListsAnswerLookupsAndFollowUpdates() {
+        when(userFollowRepository.findFollowingIdsByFollowerId(eq(1L), any(Pageable.class))).thenReturn(List.of(7L, 3L));
+        when(userFollowRepository.findFollowerIdsByFollowingId(eq(5L), any(Pageable.class))).thenReturn(List.of(2L));
+
+        assertThat(followGraph.isFollowing(1L, 3L)).isTrue();
+        assertThat(followGraph.getFollowerIds(5L)).containsExactly(2L);
+
+        followGraph.onFollow(1L, 5L);
+        followGraph.onUnfollow(1L, 7L);
+
+        assertThat(followGraph.getFollowingIds(1L)).containsExactly(3L, 5L);
+        assertThat(followGraph.filterFollowed(1L, List.of(3L, 5L, 7L))).isEqualTo(Set.of(3L, 5L));
+        assertThat(followGraph.getFollowerIds(5L)).containsExactly(1L, 2L);
+        assertThat(followGraph.getLoadedEdgeCount()).isEqualTo(4);
+        verify(userFollowRepository, times(1)).findFollowingIdsByFollowerId(eq(1L), any(Pageable.class));
+        verify(userFollowRepository, never()).existsByFollowerIdAndFollowingId(any(), any());
+    }
+
+    @Test
+    void listsOverTheEdgeCapFallBackToTheDatabase() {
+        when(userFollowRepository.findFollowerIdsByFollowingId(eq(9L), any(Pageable.class))).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(userFollowRepository.findFollowerIdsByFollowingId(9L)).thenReturn(new ArrayList<>(List.of(1L, 2L, 3L, 4L)));
+
+        assertThat(followGraph.getFollowerIds(9L)).hasSize(4);
+        followGraph.onFollow(5L, 9L);
+
+        assertThat(followGraph.getLoadedEdgeCount()).isZero();
+        verify(userFollowRepository).findFollowerIdsByFollowingId(9L);
+    }
+
+    @Test
+    void bulkLoadsDoNotCacheListsChangedWhileTheyRan() {
+        // The follow commits after the bulk query read its rows, so only the per-user reload sees it
+        when(userFollowRepository.findFollowingEdgesByFollowerIds(any(), anyLong())).thenAnswer(invocation -> {
+            followGraph.onFollow(1L, 8L);
+            return List.of(edge(1L, 3L), edge(2L, 4L));
+        });
+        when(userFollowRepository.findFollowingIdsByFollowerId(eq(1L), any(Pageable.class))).thenReturn(List.of(3L, 8L));
+
+        Map<Long, long[]> lists = followGraph.getFollowingLists(List.of(1L, 2L));
+
+        assertThat(lists.get(1L)).containsExactly(3L, 8L);
+        assertThat(lists.get(2L)).containsExactly(4L);
+        assertThat(followGraph.getFollowingIds(1L)).containsExactly(3L, 8L);
+        verify(userFollowRepository, never()).findFollowingIdsByFollowerId(eq(2L), any(Pageable.class));
+    }
+
+    private static FollowEdge edge(Long followerId, Long followingId) {
+        FollowEdge edge = mock(FollowEdge.class);
+        when(edge.getFollowerId()).thenReturn(followerId);
+        when(edge.getFollowingId()).thenReturn(followingId);
+        return edge;
+    }
+}
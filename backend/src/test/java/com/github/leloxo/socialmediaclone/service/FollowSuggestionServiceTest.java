@@ -0,0 +1,99 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.repository.FollowEdge;
+import com.github.leloxo.socialmediaclone.repository.UserFollowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FollowSuggestionServiceTest {
+    // follower -> followed; user 1 follows 2, 3 and 4
+    private static final Map<Long, List<Long>> FOLLOWS = Map.of(
+            1L, List.of(2L, 3L, 4L),
+            2L, List.of(1L, 5L, 6L),
+            3L, List.of(5L, 6L),
+            4L, List.of(3L, 5L, 7L)
+    );
+
+    private UserFollowRepository userFollowRepository;
+    private ForkJoinPool pool;
+    private FollowSuggestionService followSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        userFollowRepository = mock(UserFollowRepository.class);
+        FollowGraph followGraph = new FollowGraph(userFollowRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(followGraph, "maxWeightBytes", 1_000_000L);
+        ReflectionTestUtils.setField(followGraph, "maxEdgesPerUser", 100);
+        ReflectionTestUtils.setField(followGraph, "expireAfterWrite", Duration.ofMinutes(1));
+        followGraph.init();
+
+        pool = new ForkJoinPool(2);
+        followSuggestionService = new FollowSuggestionService(followGraph, pool);
+        ReflectionTestUtils.setField(followSuggestionService, "limit", 2);
+        // One followed account per batch, so the walk forks
+        ReflectionTestUtils.setField(followSuggestionService, "batchSize", 1);
+        ReflectionTestUtils.setField(followSuggestionService, "maxSampledFollowing", 100);
+
+        when(userFollowRepository.findFollowingIdsByFollowerId(eq(1L), any(Pageable.class))).thenReturn(FOLLOWS.get(1L));
+        when(userFollowRepository.findFollowingEdgesByFollowerIds(anyCollection(), anyLong())).thenAnswer(invocation -> {
+            Collection<Long> followerIds = invocation.getArgument(0);
+            return followerIds.stream()
+                    .flatMap(followerId -> FOLLOWS.getOrDefault(followerId, List.of()).stream()
+                            .map(followingId -> edge(followerId, followingId)))
+                    .toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void ranksFriendsOfFriendsByMutualCountExcludingSelfAndFollowed() {
+        List<FollowSuggestion> suggestions = followSuggestionService.getSuggestions(1L);
+
+        // 5 is followed by 2, 3 and 4, 6 by 2 and 3; 7 falls outside the limit
+        assertThat(suggestions).extracting(FollowSuggestion::getUserId).containsExactly(5L, 6L);
+        assertThat(suggestions).extracting(FollowSuggestion::getMutualCount).containsExactly(3, 2);
+    }
+
+    @Test
+    void usersFollowingNobodyGetNoSuggestions() {
+        when(userFollowRepository.findFollowingIdsByFollowerId(eq(8L), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(followSuggestionService.getSuggestions(8L)).isEmpty();
+        verify(userFollowRepository, never()).findFollowingEdgesByFollowerIds(anyCollection(), anyLong());
+    }
+
+    private static FollowEdge edge(Long followerId, Long followingId) {
+        return new FollowEdge() {
+            @Override
+            public Long getFollowerId() {
+                return followerId;
+            }
+
+            @Override
+            public Long getFollowingId() {
+                return followingId;
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.MySqlJpaTest;
+import com.github.leloxo.socialmediaclone.TestEntities;
+import com.github.leloxo.socialmediaclone.exception.ResourceNotFoundException;
+import com.github.leloxo.socialmediaclone.model.Post;
+import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.repository.HashtagRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@MySqlJpaTest
+@Import(HashtagService.class)
+class HashtagServiceTest {
+    @Autowired
+    private HashtagService hashtagService;
+
+    @Autowired
+    private HashtagRepository hashtagRepository;
+
+    @Autowired
+    private TestEntities entities;
+
+    @Test
+    void taggedPostsArePagedNewestFirstAndUnlinkedOnDelete() throws ResourceNotFoundException {
+        User author = entities.user("author");
+        List<Long> tagged = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Post post = persistPost(author, "day " + i + " #Travel #sun" + i);
+            assertThat(hashtagService.tagPost(post)).contains("travel");
+            tagged.add(0, post.getId());
+        }
+        hashtagService.tagPost(persistPost(author, "no tags here"));
+
+        List<Long> seen = new ArrayList<>();
+        Cursor cursor = Cursor.start();
+        while (true) {
+            List<Cursor> keys = hashtagService.getPostKeys("#travel", cursor, 2);
+            if (keys.isEmpty()) {
+                break;
+            }
+            keys.forEach(key -> seen.add(key.getId()));
+            cursor = keys.get(keys.size() - 1);
+        }
+
+        assertThat(seen).isEqualTo(tagged);
+        assertThat(hashtagRepository.count()).isEqualTo(6);
+
+        hashtagService.onPostDeleted(tagged.get(0));
+        assertThat(hashtagService.getPostKeys("TRAVEL", Cursor.start(), 10)).hasSize(4);
+        assertThatThrownBy(() -> hashtagService.getPostKeys("unknown", Cursor.start(), 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private Post persistPost(User author, String caption) {
+        Post post = entities.post(author, caption);
+        // Distinct creation times keep the expected order independent of the ID tie-break
+        post.setCreatedAt(LocalDateTime.now().minusMinutes(100).plusMinutes(post.getId()));
+        return post;
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of validating a token the old way (three parses, key rebuilt
+ * for each) with the single-parse path of {@link JwtService}, with and without the
+ * verified-token cache.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JwtServiceBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+    private static final String SECRET_KEY = "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJraW5nLWp3dC12ZXJpZmljYXRpb24tcGF0aA==";
+
+    private JwtService cachedJwtService;
+    private JwtService uncachedJwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtService = newJwtService(10_000);
+        uncachedJwtService = newJwtService(0);
+
+        user = new User();
+        user.setId(1L);
+        user.setUserName("benchmark");
+        user.setEmail("benchmark@example.com");
+        token = cachedJwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyParse(token).getSubject();
+        return username.equals(user.getUsername())
+                && legacyParse(token).getSubject().equals(user.getUsername())
+                && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        Claims claims = uncachedJwtService.parseToken(token);
+        return uncachedJwtService.isTokenValid(token, claims, user);
+    }
+
+    @Benchmark
+    public boolean cachedParse() {
+        Claims claims = cachedJwtService.parseToken(token);
+        return cachedJwtService.isTokenValid(token, claims, user);
+    }
+
+    private Claims legacyParse(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static JwtService newJwtService(long verifiedCacheSize) {
+        JwtService jwtService = new JwtService(new TokenRevocationService(null));
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", verifiedCacheSize);
+        jwtService.init();
+        return jwtService;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.config.CacheNames;
+import com.github.leloxo.socialmediaclone.model.Post;
+import com.github.leloxo.socialmediaclone.repository.PostCounts;
+import com.github.leloxo.socialmediaclone.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PostCounterServiceTest {
+    private JdbcTemplate jdbcTemplate;
+    private PostRepository postRepository;
+    private PostCounterService postCounterService;
+
+    // Post ID -> like count as persisted by the flushed UPDATE statements
+    private final ConcurrentHashMap<Long, AtomicLong> persistedLikes = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        postRepository = mock(PostRepository.class);
+        CacheManager cacheManager = new ConcurrentMapCacheManager(CacheNames.POST_LIKE_COUNT, CacheNames.POST_COMMENT_COUNT, CacheNames.POST_DETAILS);
+
+        postCounterService = new PostCounterService(jdbcTemplate, postRepository, cacheManager, new CacheInvalidationService(cacheManager));
+        ReflectionTestUtils.setField(postCounterService, "flushBatchSize", 100);
+
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            if (invocation.<String>getArgument(0).contains("like_count")) {
+                batch.forEach(args -> persistedLikes.computeIfAbsent((Long) args[1], id -> new AtomicLong()).addAndGet((Long) args[0]));
+            }
+            return new int[batch.size()];
+        });
+        when(postRepository.findLikeCountById(anyLong())).thenAnswer(invocation ->
+                (int) persistedLikes.getOrDefault(invocation.<Long>getArgument(0), new AtomicLong()).get());
+        when(postRepository.findCountsByIdIn(anyCollection())).thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+                .map(id -> new PostCounts(id, (int) persistedLikes.getOrDefault(id, new AtomicLong()).get(), 0))
+                .toList());
+    }
+
+    @Test
+    void readsMergePersistedAndPendingCounts() throws Exception {
+        postCounterService.addLikes(1L, 1);
+        postCounterService.addLikes(1L, 1);
+        assertThat(postCounterService.getLikeCount(1L)).isEqualTo(2);
+
+        postCounterService.flush();
+        postCounterService.addLikes(1L, -1);
+
+        assertThat(persistedLikes.get(1L).get()).isEqualTo(2);
+        assertThat(postCounterService.getLikeCount(1L)).isEqualTo(1);
+    }
+
+    @Test
+    void postsFromCachedPagesDoNotLoseFlushedDeltas() {
+        // Loaded before any like, e.g. sitting on a cached feed page
+        Post cached = new Post();
+        cached.setId(1L);
+
+        postCounterService.addLikes(1L, 2);
+        assertThat(postCounterService.getCounts(List.of(cached)).get(1L).getLikeCount()).isEqualTo(2);
+
+        postCounterService.flush();
+        assertThat(postCounterService.getCounts(List.of(cached)).get(1L).getLikeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void pageCountsAreLoadedWithOneQuery() {
+        List<Post> page = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            Post post = new Post();
+            post.setId(id);
+            page.add(post);
+            postCounterService.addLikes(id, id);
+        }
+        postCounterService.flush();
+        postCounterService.addLikes(3L, 1);
+
+        Map<Long, PostCounts> counts = postCounterService.getCounts(page);
+        postCounterService.getCounts(page);
+
+        assertThat(counts).hasSize(5);
+        assertThat(counts.get(3L).getLikeCount()).isEqualTo(4);
+        assertThat(counts.get(5L).getLikeCount()).isEqualTo(5);
+        verify(postRepository, times(1)).findCountsByIdIn(anyCollection());
+        verify(postRepository, never()).findLikeCountById(anyLong());
+        verify(postRepository, never()).findCommentCountById(anyLong());
+    }
+
+    @Test
+    void failedFlushKeepsDeltasPending() throws Exception {
+        postCounterService.addLikes(1L, 3);
+        doThrow(new DataAccessResourceFailureException("down")).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        postCounterService.flush();
+
+        assertThat(persistedLikes).isEmpty();
+        assertThat(postCounterService.getLikeCount(1L)).isEqualTo(3);
+    }
+
+    @Test
+    void readsDuringAFlushSeeEachDeltaExactlyOnce() throws Exception {
+        postCounterService.addLikes(1L, 2);
+        assertThat(postCounterService.getLikeCount(1L)).isEqualTo(2);
+
+        List<CompletableFuture<Integer>> readsDuringFlush = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            for (int i = 0; i < 4; i++) {
+                readsDuringFlush.add(CompletableFuture.supplyAsync(this::likeCountOfFirstPost));
+            }
+            Thread.sleep(50);
+            List<Object[]> batch = invocation.getArgument(1);
+            batch.forEach(args -> persistedLikes.computeIfAbsent((Long) args[1], id -> new AtomicLong()).addAndGet((Long) args[0]));
+            return new int[batch.size()];
+        });
+
+        postCounterService.flush();
+
+        for (CompletableFuture<Integer> read : readsDuringFlush) {
+            assertThat(read.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void concurrentIncrementsAreNotLostWhileFlushing() throws InterruptedException {
+        int threads = 8;
+        int incrementsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread flusher = new Thread(() -> {
+            while (running.get()) {
+                postCounterService.flush();
+            }
+        });
+        flusher.start();
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < incrementsPerThread; i++) {
+                    postCounterService.addLikes((long) (i % 4), 1);
+                }
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        running.set(false);
+        flusher.join();
+        executor.shutdown();
+        postCounterService.flush();
+
+        long total = persistedLikes.values().stream().mapToLong(AtomicLong::get).sum();
+        assertThat(total).isEqualTo((long) threads * incrementsPerThread);
+    }
+
+    private int likeCountOfFirstPost() {
+        try {
+            return postCounterService.getLikeCount(1L);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.pagination.Cursor;
+import com.github.leloxo.socialmediaclone.repository.TimelineEntryRepository;
+import com.github.leloxo.socialmediaclone.repository.UserFollowRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TimelineServiceTest {
+    private TimelineEntryRepository timelineEntryRepository;
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        timelineEntryRepository = mock(TimelineEntryRepository.class);
+        timelineService = new TimelineService(timelineEntryRepository, mock(UserFollowRepository.class), mock(CacheInvalidationService.class));
+        ReflectionTestUtils.setField(timelineService, "maxSize", 800);
+        ReflectionTestUtils.setField(timelineService, "rebuildInterval", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(timelineService, "maxRebuildMarkers", 100L);
+        timelineService.init();
+    }
+
+    @Test
+    void emptyTimelinesAreRebuiltOncePerInterval() {
+        when(timelineEntryRepository.findKeysByUserIdBefore(eq(1L), any(), any(), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(timelineService.getTimelineKeys(1L, Cursor.start(), 10)).isEmpty();
+        assertThat(timelineService.getTimelineKeys(1L, Cursor.start(), 10)).isEmpty();
+        assertThat(timelineService.getTimelineKeys(2L, Cursor.start(), 10)).isEmpty();
+
+        verify(timelineEntryRepository, times(1)).rebuildForUser(eq(1L), anyInt());
+        verify(timelineEntryRepository, times(1)).rebuildForUser(eq(2L), anyInt());
+    }
+}
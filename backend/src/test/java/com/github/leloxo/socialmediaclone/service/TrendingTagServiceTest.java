@@ -0,0 +1,61 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TrendingTagServiceTest {
+    private static final long MINUTE = 60_000;
+
+    @Test
+    void windowCountsOnlyRecentIntervalsAndRanksByCount() {
+        // One hour in one-minute intervals
+        TrendingTagService.SlidingWindow window = new TrendingTagService.SlidingWindow(MINUTE, 60, 256, 4, 10);
+        long start = 1_000 * MINUTE;
+
+        for (int i = 0; i < 5; i++) {
+            window.record(List.of("old"), start);
+        }
+        for (int i = 0; i < 3; i++) {
+            window.record(List.of("sunset", "beach"), start + 30 * MINUTE);
+        }
+        window.record(List.of("beach"), start + 59 * MINUTE);
+
+        assertThat(window.top(10, start + 59 * MINUTE))
+                .extracting(TrendingTag::getTag, TrendingTag::getCount)
+                .containsExactly(
+                        tuple("old", 5L),
+                        tuple("beach", 4L),
+                        tuple("sunset", 3L));
+
+        // The first interval leaves the window
+        assertThat(window.top(10, start + 60 * MINUTE))
+                .extracting(TrendingTag::getTag)
+                .containsExactly("beach", "sunset");
+        // Uses older than the window are ignored
+        window.record(List.of("old"), start);
+        assertThat(window.top(1, start + 60 * MINUTE)).extracting(TrendingTag::getTag).containsExactly("beach");
+        assertThat(window.top(10, start + 200 * MINUTE)).isEmpty();
+    }
+
+    @Test
+    void candidateSetKeepsTheHeavyHitters() {
+        TrendingTagService.SlidingWindow window = new TrendingTagService.SlidingWindow(MINUTE, 60, 1024, 4, 3);
+        long now = 1_000 * MINUTE;
+
+        for (int i = 0; i < 1_000; i++) {
+            window.record(List.of("tail" + i), now);
+            if (i % 10 == 0) {
+                window.record(List.of("hot"), now);
+            }
+            if (i % 20 == 0) {
+                window.record(List.of("warm"), now);
+            }
+        }
+
+        assertThat(window.top(2, now)).extracting(TrendingTag::getTag).containsExactly("hot", "warm");
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.leloxo.socialmediaclone.MySqlJpaTest;
+import com.github.leloxo.socialmediaclone.TestEntities;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MySqlJpaTest
+@TestPropertySource(properties = "users.export.fetch-size=2")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(UserExportService.class)
+class UserExportServiceTest {
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestEntities entities;
+
+    @Test
+    void exportsEveryUserAsOneJsonArray() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            entities.user("export" + i);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        userExportService.export(output);
+
+        JsonNode users = objectMapper.readTree(output.toByteArray());
+        assertThat(users.isArray()).isTrue();
+        assertThat(users).hasSize(5);
+        assertThat(users.get(0).get("userName").asText()).isEqualTo("export0");
+        assertThat(users.get(0).has("followerCount")).isTrue();
+        assertThat(users.get(0).has("password")).isFalse();
+    }
+}
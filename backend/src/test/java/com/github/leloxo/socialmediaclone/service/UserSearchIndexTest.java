@@ -0,0 +1,83 @@
+package com.github.leloxo.socialmediaclone.service;
+
+import com.github.leloxo.socialmediaclone.model.User;
+import com.github.leloxo.socialmediaclone.repository.UserRepository;
+import com.github.leloxo.socialmediaclone.repository.UserSearchEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserSearchIndexTest {
+    private UserRepository userRepository;
+    private UserSearchIndex userSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userSearchIndex = new UserSearchIndex(userRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userSearchIndex, "enabled", true);
+        ReflectionTestUtils.setField(userSearchIndex, "maxCandidates", 100);
+        ReflectionTestUtils.setField(userSearchIndex, "loadBatchSize", 2);
+        userSearchIndex.init();
+
+        when(userRepository.findSearchEntriesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new UserSearchEntry(1L, "annabelle", "Zoe", "Quinn", null),
+                new UserSearchEntry(2L, "ann", "Ann", "Lee", null)));
+        when(userRepository.findSearchEntriesAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(
+                new UserSearchEntry(3L, "zed", "Anna", "Åberg", null)));
+    }
+
+    @Test
+    void ranksExactAndUsernameMatchesBeforeNameMatches() {
+        userSearchIndex.rebuild();
+
+        assertThat(userSearchIndex.search("ANN", 10)).extracting(UserSearchEntry::getId).containsExactly(2L, 1L, 3L);
+        assertThat(userSearchIndex.search("ann", 2)).extracting(UserSearchEntry::getId).containsExactly(2L, 1L);
+        assertThat(userSearchIndex.search("aberg", 10)).extracting(UserSearchEntry::getId).containsExactly(3L);
+        assertThat(userSearchIndex.search("anna  åb", 10)).extracting(UserSearchEntry::getId).containsExactly(3L);
+        assertThat(userSearchIndex.search(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void profileChangesReplaceTheOldTerms() {
+        userSearchIndex.rebuild();
+
+        User user = new User();
+        user.setId(3L);
+        user.setUserName("zed");
+        user.setFirstName("Bob");
+        user.setLastName("Åberg");
+        userSearchIndex.index(user);
+
+        assertThat(userSearchIndex.search("anna", 10)).extracting(UserSearchEntry::getId).containsExactly(1L);
+        assertThat(userSearchIndex.search("bob", 10)).extracting(UserSearchEntry::getId).containsExactly(3L);
+    }
+
+    @Test
+    void rebuildsDropUsersThatAreNoLongerActive() {
+        userSearchIndex.rebuild();
+        when(userRepository.findSearchEntriesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new UserSearchEntry(2L, "ann", "Ann", "Lee", null)));
+
+        userSearchIndex.rebuild();
+
+        assertThat(userSearchIndex.search("ann", 10)).extracting(UserSearchEntry::getId).containsExactly(2L);
+        assertThat(userSearchIndex.search("zed", 10)).isEmpty();
+    }
+
+    @Test
+    void searchesQueryTheDatabaseUntilTheIndexIsBuilt() {
+        userSearchIndex.search("a_b", 5);
+
+        verify(userRepository).findSearchEntriesByUserNamePrefix(eq("a!_b"), any(Pageable.class));
+    }
+}
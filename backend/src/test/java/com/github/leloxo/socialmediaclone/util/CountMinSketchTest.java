@@ -0,0 +1,38 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+    @Test
+    void estimatesNeverUndercountAndStayCloseForHeavyHitters() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        for (int i = 0; i < 50_000; i++) {
+            sketch.add("tag" + (i % 5_000), 1);
+        }
+        sketch.add("hot", 2_000);
+
+        for (int i = 0; i < 5_000; i += 97) {
+            assertThat(sketch.estimate("tag" + i)).isGreaterThanOrEqualTo(10);
+        }
+        // e / width of the 52,000 total is about 140
+        assertThat(sketch.estimate("hot")).isBetween(2_000L, 2_140L);
+        assertThat(sketch.getTotal()).isEqualTo(52_000);
+    }
+
+    @Test
+    void subtractingASketchRemovesItsCounts() {
+        CountMinSketch total = new CountMinSketch(64, 3);
+        CountMinSketch interval = new CountMinSketch(64, 3);
+        interval.add("sunset", 3);
+        total.add(interval);
+        total.add("beach", 2);
+
+        total.subtract(interval);
+
+        assertThat(total.estimate("sunset")).isZero();
+        assertThat(total.estimate("beach")).isEqualTo(2);
+        assertThat(total.getTotal()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpireAfterLoadTest {
+    @Test
+    void readsAndUpdatesDoNotExtendTheDeadline() {
+        AtomicLong now = new AtomicLong();
+        Cache<Long, String> cache = Caffeine.newBuilder()
+                .expireAfter(new ExpireAfterLoad<Long, String>(Duration.ofMinutes(5)))
+                .ticker(now::get)
+                .executor(Runnable::run)
+                .build();
+
+        cache.put(1L, "loaded");
+        for (int minute = 1; minute < 5; minute++) {
+            now.addAndGet(Duration.ofMinutes(1).toNanos());
+            assertThat(cache.getIfPresent(1L)).isNotNull();
+            cache.asMap().computeIfPresent(1L, (key, value) -> value + "+");
+        }
+
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertThat(cache.getIfPresent(1L)).isNull();
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashtagsTest {
+    @Test
+    void extractsDistinctNormalizedTagsInOrder() {
+        assertThat(Hashtags.extract("#Sunset at the #beach! #SUNSET #Café_Noir #1 mail@#x a#b &#39;"))
+                .containsExactly("sunset", "beach", "cafe_noir", "x");
+    }
+
+    @Test
+    void normalizeAcceptsALeadingHashAndRejectsNonTags() {
+        assertThat(Hashtags.normalize("#Été")).isEqualTo("ete");
+        assertThat(Hashtags.normalize("2024")).isNull();
+        assertThat(Hashtags.normalize("two words")).isNull();
+    }
+}
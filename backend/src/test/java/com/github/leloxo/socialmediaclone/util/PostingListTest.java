@@ -0,0 +1,46 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingListTest {
+    @Test
+    void postingsDecodeInIdOrderWhateverTheInsertOrder() {
+        PostingList list = new PostingList();
+        list.add(5, 1);
+        list.add(1_000_000_000_000L, 3);
+        list.add(2, 2);
+        assertThat(list.add(5, 9)).isFalse();
+
+        assertThat(decode(list)).containsExactly(List.of(2L, 2L), List.of(5L, 1L), List.of(1_000_000_000_000L, 3L));
+        assertThat(list.lastId()).isEqualTo(1_000_000_000_000L);
+    }
+
+    @Test
+    void retainAllDropsPostingsAndSurvivesARoundTripThroughBytes() {
+        PostingList list = new PostingList();
+        for (long id = 1; id <= 1000; id++) {
+            list.add(id, 1);
+        }
+        // Consecutive IDs take one byte for the delta and one for the frequency
+        assertThat(list.toBytes()).hasSize(2000);
+
+        assertThat(list.retainAll(id -> id % 2 == 0)).isEqualTo(500);
+        PostingList copy = PostingList.fromBytes(list.toBytes(), list.size(), list.lastId());
+        copy.add(1001, 4);
+
+        assertThat(copy.size()).isEqualTo(501);
+        assertThat(decode(copy).get(0)).containsExactly(2L, 1L);
+        assertThat(decode(copy).get(500)).containsExactly(1001L, 4L);
+    }
+
+    private static List<List<Long>> decode(PostingList list) {
+        List<List<Long>> postings = new ArrayList<>();
+        list.forEach((id, frequency) -> postings.add(List.of(id, (long) frequency)));
+        return postings;
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SortedLongArraysTest {
+    @Test
+    void buildsSortedDistinctArrays() {
+        assertThat(SortedLongArrays.of(List.of(5L, 1L, 3L, 1L))).containsExactly(1L, 3L, 5L);
+        assertThat(SortedLongArrays.of(List.of())).isSameAs(SortedLongArrays.EMPTY);
+    }
+
+    @Test
+    void insertKeepsOrderAndIgnoresDuplicates() {
+        long[] array = SortedLongArrays.of(List.of(2L, 4L));
+
+        assertThat(SortedLongArrays.insert(array, 1L)).containsExactly(1L, 2L, 4L);
+        assertThat(SortedLongArrays.insert(array, 3L)).containsExactly(2L, 3L, 4L);
+        assertThat(SortedLongArrays.insert(array, 5L)).containsExactly(2L, 4L, 5L);
+        assertThat(SortedLongArrays.insert(array, 4L)).isSameAs(array);
+    }
+
+    @Test
+    void removeDropsOnlyPresentValues() {
+        long[] array = SortedLongArrays.of(List.of(2L, 4L, 6L));
+
+        assertThat(SortedLongArrays.remove(array, 4L)).containsExactly(2L, 6L);
+        assertThat(SortedLongArrays.remove(array, 5L)).isSameAs(array);
+        assertThat(SortedLongArrays.remove(new long[]{7L}, 7L)).isSameAs(SortedLongArrays.EMPTY);
+        assertThat(SortedLongArrays.contains(array, 6L)).isTrue();
+        assertThat(SortedLongArrays.contains(array, 3L)).isFalse();
+    }
+
+    @Test
+    void intersectMergesSimilarSizesAndGallopsThroughLargerArrays() {
+        long[] evens = new long[1000];
+        for (int i = 0; i < evens.length; i++) {
+            evens[i] = i * 2L;
+        }
+
+        assertThat(SortedLongArrays.intersect(new long[]{1L, 2L, 4L, 5L}, new long[]{2L, 3L, 5L, 8L})).containsExactly(2L, 5L);
+        // 1000 / 4 is past the galloping ratio; 1999 is beyond the last even value
+        assertThat(SortedLongArrays.intersect(new long[]{0L, 7L, 998L, 1999L}, evens)).containsExactly(0L, 998L);
+        assertThat(SortedLongArrays.intersect(evens, new long[]{1998L})).containsExactly(1998L);
+        assertThat(SortedLongArrays.intersect(new long[]{1L, 3L}, evens)).isSameAs(SortedLongArrays.EMPTY);
+        assertThat(SortedLongArrays.intersect(SortedLongArrays.EMPTY, evens)).isSameAs(SortedLongArrays.EMPTY);
+    }
+}
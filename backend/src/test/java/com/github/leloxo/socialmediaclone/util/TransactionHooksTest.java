@@ -0,0 +1,30 @@
+package com.github.leloxo.socialmediaclone.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionHooksTest {
+    @Test
+    void actionsRunAfterCommitOrAtOnceOutsideATransaction() {
+        AtomicInteger runs = new AtomicInteger();
+
+        TransactionHooks.afterCommit(runs::incrementAndGet);
+        assertThat(runs).hasValue(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            TransactionHooks.afterCommit(runs::incrementAndGet);
+            assertThat(runs).hasValue(1);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(runs).hasValue(2);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -1,7 +1,7 @@
 import { HttpErrorResponse, HttpHandlerFn, HttpInterceptorFn, HttpRequest, HttpStatusCode } from '@angular/common/http';
 import { inject } from '@angular/core';
 import { AuthService } from '../../services/auth.service';
-import { catchError, throwError } from 'rxjs';
+import { catchError, Observable, switchMap, throwError } from 'rxjs';
 import { Router } from '@angular/router';
 import { ProblemDetail } from '../../models/common/api-error.model';
 import { AppError } from '../app-error.type';
@@ -21,24 +21,44 @@ export const jwtInterceptor: HttpInterceptorFn = (req: HttpRequest<unknown>, nex
     catchError((error: HttpErrorResponse) => {
       // TODO: move to errorHandler
       if (error.status === HttpStatusCode.Forbidden) {
+        // Expired access tokens are renewed once with the refresh token before giving up
+        if (authService.getRefreshToken() && !req.url.includes('/auth/')) {
+          return authService.refresh().pipe(
+            switchMap(response => next(req.clone({
+              setHeaders: { Authorization: `Bearer ${response.token}` }
+            }))),
+            catchError((retryError: HttpErrorResponse) => {
+              if (retryError.status === HttpStatusCode.Forbidden || retryError.status === HttpStatusCode.Unauthorized) {
+                authService.logout();
+                router.navigate(['/login']);
+              }
+              return toAppError(retryError);
+            })
+          );
+        }
+
         authService.logout();
         router.navigate(['/login']);
       }
 
-      if (error.error && typeof error.error === 'object') {
-        const problemDetail = error.error as ProblemDetail;
-
-        return throwError(() => new AppError(
-            problemDetail.detail || 'An unexpected error occurred.',
-            problemDetail.status,
-            problemDetail
-        ));
-      }
-
-      return throwError(() => new AppError(
-        error.message || 'An unexpected error occurred.',
-        error.status
-      ));
+      return toAppError(error);
     })
   );
 };
+
+function toAppError(error: HttpErrorResponse): Observable<never> {
+  if (error.error && typeof error.error === 'object') {
+    const problemDetail = error.error as ProblemDetail;
+
+    return throwError(() => new AppError(
+        problemDetail.detail || 'An unexpected error occurred.',
+        problemDetail.status,
+        problemDetail
+    ));
+  }
+
+  return throwError(() => new AppError(
+    error.message || 'An unexpected error occurred.',
+    error.status
+  ));
+}
@@ -1,4 +1,5 @@
 export interface LoginCredentials {
   email: string;
   password: string;
+  deviceId?: string;
 }
\ No newline at end of file
@@ -1,4 +1,6 @@
 export interface LoginResponse {
     token: string;
+    refreshToken: string;
+    deviceId: string;
     username: string;
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+export interface CursorPageResponse<T> {
+    items: T[];
+    nextCursor: string | null;
+    hasNext: boolean;
+}
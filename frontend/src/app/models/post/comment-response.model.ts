@@ -1,7 +1,7 @@
-import { Post } from "./post.model";
+import { Comment } from "./comment.model";
 
 export interface CommentResponse {
     postId: number,
     commentCount: number,
-    postDetails: Post
-}
\ No newline at end of file
+    comment: Comment | null
+}
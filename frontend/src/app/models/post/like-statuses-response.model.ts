@@ -0,0 +1,4 @@
+export interface LikeStatusesResponse {
+    userId: number,
+    liked: Record<number, boolean>
+}
\ No newline at end of file
@@ -10,6 +10,8 @@ export interface Post {
     comments: Comment[];
     likeCount: number;
     commentCount: number;
+    likedByMe?: boolean | null;
+    followingAuthor?: boolean | null;
     isLiked?: boolean;
     isOwnPost?: boolean;
 }
\ No newline at end of file
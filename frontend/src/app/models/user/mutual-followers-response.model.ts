@@ -0,0 +1,7 @@
+import { UserSummary } from "./user-summary.model";
+
+export interface MutualFollowersResponse {
+    userId: number,
+    followers: UserSummary[],
+    count: number
+}
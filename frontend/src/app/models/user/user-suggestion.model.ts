@@ -0,0 +1,5 @@
+import { UserSummary } from "./user-summary.model";
+
+export interface UserSuggestion extends UserSummary {
+    mutualCount: number;
+}
@@ -7,5 +7,7 @@ export interface User {
     updatedAt: Date;
     profileImageUrl?: string;
     biography?: string;
+    followerCount?: number;
+    followingCount?: number;
 }
   
\ No newline at end of file
@@ -98,7 +98,7 @@ export class LoginComponent implements OnInit {
   }
 
   private handleLoginSuccess(response: LoginResponse): void {
-    this.authService.saveToken(response.token);
+    this.authService.saveSession(response);
     this.authService.saveUsername(response.username);
     this.showSuccessToast('Signed in', 'Successfully signed in');
     this.navigateToProfile();
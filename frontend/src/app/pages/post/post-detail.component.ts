@@ -42,6 +42,7 @@ export class PostDetailComponent implements OnInit {
     private readonly toastService = inject(ToastService);
 
     private readonly selectedComment = signal<Comment | undefined>(undefined);
+    private commentsCursor?: string;
 
     readonly menuItemsOwnPost: MenuItem[] = [
         {
@@ -157,13 +158,14 @@ export class PostDetailComponent implements OnInit {
             .pipe(takeUntilDestroyed(this.destroyRef))
             .subscribe({
                 next: (response) => {
-                    this.post = this.postUtils.mergePostUpdates(
-                        response.postDetails,
-                        this.post
-                    );
-
-                    this.post = this.postUtils.sortCommentsByDate(this.post);                   
-                    this.postUpdated.emit(this.post);
+                    if (this.post && response.comment) {
+                        this.post = {
+                            ...this.post,
+                            comments: [{ ...response.comment, isOwnComment: true }, ...this.post.comments],
+                            commentCount: response.commentCount
+                        };
+                        this.postUpdated.emit(this.post);
+                    }
                     this.resetForm();
                 },
                 error: () => {
@@ -172,7 +174,40 @@ export class PostDetailComponent implements OnInit {
             });
     }
 
+    get hasMoreComments(): boolean {
+        return !!this.post && this.post.comments.length < this.post.commentCount;
+    }
+
+    // Post details only carry the newest comments; older ones are paged in on demand
+    loadMoreComments(): void {
+        const post = this.post;
+        if (!post) return;
+
+        this.postService.getComments(post.id, this.commentsCursor)
+            .pipe(takeUntilDestroyed(this.destroyRef))
+            .subscribe({
+                next: (page) => {
+                    const currentUsername = this.authService.getUsername();
+                    const knownIds = new Set(post.comments.map(comment => comment.id));
+                    const olderComments = page.items
+                        .filter(comment => !knownIds.has(comment.id))
+                        .map(comment => ({ ...comment, isOwnComment: comment.authorSummary.userName === currentUsername }));
+
+                    this.commentsCursor = page.nextCursor ?? undefined;
+                    this.post = {
+                        ...post,
+                        comments: [...post.comments, ...olderComments],
+                        commentCount: page.hasNext ? post.commentCount : post.comments.length + olderComments.length
+                    };
+                },
+                error: () => {
+                    this.toastService.error('Failed to load comments');
+                }
+            });
+    }
+
     closeModal(): void {
+        this.commentsCursor = undefined;
         this.resetForm();
         this.close.emit();
     }
@@ -220,13 +255,11 @@ export class PostDetailComponent implements OnInit {
           .subscribe({
             next: (response) => {
                 if (this.post) {
-                    
-                    this.post = this.postUtils.mergePostUpdates(
-                        response.postDetails,
-                        this.post
-                    );
-      
-                    this.post = this.postUtils.sortCommentsByDate(this.post);
+                    this.post = {
+                        ...this.post,
+                        comments: this.post.comments.filter(comment => comment.id !== commentId),
+                        commentCount: response.commentCount
+                    };
                     this.postUpdated.emit(this.post);
                     this.toastService.success('Comment deleted successfully');
                 }
@@ -29,7 +29,9 @@ export class FollowDetailComponent implements OnInit, OnChanges {
     @Input() followers: UserSummary[] = [];
     @Input() following: UserSummary[] = [];
     @Input() display: boolean = false;
+    @Input() hasMore: boolean = false;
     @Output() close = new EventEmitter<void>();
+    @Output() loadMore = new EventEmitter<void>();
 
     protected readonly FollowType = FollowType;
 
@@ -51,6 +53,9 @@ export class FollowDetailComponent implements OnInit, OnChanges {
     ngOnChanges(changes: SimpleChanges): void {
         if (changes['followers'] || changes['following'] || changes['display']) {
             this.ensureFilteredUsers();
+            if (this.searchTerm.trim()) {
+                this.performSearch(this.searchTerm);
+            }
         }
     }
 
@@ -102,6 +107,10 @@ export class FollowDetailComponent implements OnInit, OnChanges {
         this.searchTerms.next(this.searchTerm);
     }
 
+    protected onLoadMore(): void {
+        this.loadMore.emit();
+    }
+
     protected closeModal(): void {
         this.searchTerm = '';
         this.close.emit();
@@ -80,6 +80,10 @@ export class ProfileComponent implements OnInit {
 
   readonly followers = signal<UserSummary[]>([]);
   readonly following = signal<UserSummary[]>([]);
+  readonly mutualFollowers = signal<UserSummary[]>([]);
+  readonly mutualFollowerCount = signal(0);
+  readonly followersCursor = signal<string | null>(null);
+  readonly followingCursor = signal<string | null>(null);
   readonly selectedPost = signal<Post | undefined>(undefined);
   readonly followType = signal<FollowType>(FollowType.Default);
 
@@ -186,6 +190,10 @@ export class ProfileComponent implements OnInit {
     });
   }
 
+  viewUserProfile(username: string): void {
+    this.router.navigate([`/profile/${username}`]);
+  }
+
   navigateToUpload(): void {
     this.router.navigate(["/upload"]);
   }
@@ -204,6 +212,11 @@ export class ProfileComponent implements OnInit {
     this.followType.set(type);
   }
 
+  loadMoreFollows(): void {
+    const more = this.followType() === FollowType.Followers ? this.loadFollowers(true) : this.loadFollowing(true);
+    more.pipe(takeUntilDestroyed(this.destroyRef)).subscribe();
+  }
+
   closeFollowDetail(): void {
     this.isFollowDetailMode.set(false);
   }
@@ -237,6 +250,8 @@ export class ProfileComponent implements OnInit {
         this.username = params['username'];
         const loggedInUsername = this.authService.getUsername();
         this.isOwnProfile.set(this.username === 'me' || this.username === loggedInUsername);
+        this.mutualFollowers.set([]);
+        this.mutualFollowerCount.set(0);
         this.fetchProfileData();
       });
   }
@@ -275,7 +290,8 @@ export class ProfileComponent implements OnInit {
           posts: this.loadUserPosts().pipe(catchError(() => EMPTY)),
           followers: this.loadFollowers().pipe(catchError(() => EMPTY)),
           following: this.loadFollowing().pipe(catchError(() => EMPTY)),
-          followStatus: this.isOwnProfile() ? of(undefined) : this.getFollowStatus().pipe(catchError(() => EMPTY))
+          followStatus: this.isOwnProfile() ? of(undefined) : this.getFollowStatus().pipe(catchError(() => EMPTY)),
+          mutualFollowers: this.isOwnProfile() ? of(undefined) : this.loadMutualFollowers().pipe(catchError(() => EMPTY))
         });
       }),
       finalize(() => this.isLoading.set(false))
@@ -285,6 +301,13 @@ export class ProfileComponent implements OnInit {
   private loadProfileStats(): Observable<void> {
     const currentUser = this.user();
     if (!currentUser) return EMPTY;
+
+    // Profiles carry the counts; the count endpoints are only a fallback
+    if (currentUser.followerCount != null && currentUser.followingCount != null) {
+      this.followerCount.set(currentUser.followerCount);
+      this.followingCount.set(currentUser.followingCount);
+      return of(undefined);
+    }
   
     return forkJoin({
       followers: this.userFollowService.getUserFollowersCount(currentUser.id),
@@ -321,32 +344,51 @@ export class ProfileComponent implements OnInit {
     );
   }
 
-  private loadFollowers(): Observable<void> {
+  // Followers and following are paged newest first; the first page is loaded with the profile
+  private loadFollowers(more: boolean = false): Observable<void> {
     const currentUser = this.user();
-    if (!currentUser) return EMPTY;
+    const cursor = more ? this.followersCursor() : undefined;
+    if (!currentUser || cursor === null) return EMPTY;
   
-    return this.userFollowService.getUserFollowers(currentUser.id).pipe(
-      tap(response => {
-        this.followers.set(structuredClone(response.followers));
+    return this.userFollowService.getUserFollowersPage(currentUser.id, cursor).pipe(
+      tap(page => {
+        this.followers.update(followers => more ? [...followers, ...page.items] : page.items);
+        this.followersCursor.set(page.hasNext ? page.nextCursor : null);
       }),
       map(() => undefined),
       catchError(err => this.handleError('Failed to load followers', err))
     );
   }
   
-  private loadFollowing(): Observable<void> {
+  private loadFollowing(more: boolean = false): Observable<void> {
     const currentUser = this.user();
-    if (!currentUser) return EMPTY;
+    const cursor = more ? this.followingCursor() : undefined;
+    if (!currentUser || cursor === null) return EMPTY;
   
-    return this.userFollowService.getUserFollowing(currentUser.id).pipe(
-      tap(response => {
-        this.following.set(structuredClone(response.following));
+    return this.userFollowService.getUserFollowingPage(currentUser.id, cursor).pipe(
+      tap(page => {
+        this.following.update(following => more ? [...following, ...page.items] : page.items);
+        this.followingCursor.set(page.hasNext ? page.nextCursor : null);
       }),
       map(() => undefined),
       catchError(err => this.handleError('Failed to load following', err))
     );
   }
   
+  private loadMutualFollowers(): Observable<void> {
+    const currentUser = this.user();
+    if (!currentUser || this.isOwnProfile()) return EMPTY;
+
+    return this.userFollowService.getMutualFollowers(currentUser.id).pipe(
+      tap(response => {
+        this.mutualFollowers.set(response.followers);
+        this.mutualFollowerCount.set(response.count);
+      }),
+      map(() => undefined),
+      catchError(err => this.handleError('Failed to load mutual followers', err))
+    );
+  }
+
   private getFollowStatus(): Observable<void> {
     const currentUser = this.user();
     if (!currentUser || this.isOwnProfile()) return EMPTY;
@@ -6,8 +6,9 @@ import { IconField } from 'primeng/iconfield';
 import { InputIcon } from 'primeng/inputicon';
 import { InputTextModule } from 'primeng/inputtext';
 import { Subject, debounceTime, distinctUntilChanged, takeUntil } from 'rxjs';
-import { User } from '../../../models/user/user.model';
+import { UserSummary } from '../../../models/user/user-summary.model';
 import { UserService } from '../../../services/user.service';
+import { UserSuggestion } from '../../../models/user/user-suggestion.model';
 
 @Component({
   selector: 'app-search',
@@ -27,7 +28,8 @@ export class SearchComponent implements OnInit, OnDestroy {
   private router = inject(Router);
 
   searchTerm: string = '';
-  users: User[] = [];
+  users: UserSummary[] = [];
+  suggestions: UserSuggestion[] = [];
 
   // TODO: use p-toast for error handling
   // TODO: rxjs loading ??
@@ -40,6 +42,7 @@ export class SearchComponent implements OnInit, OnDestroy {
 
   ngOnInit(): void {
     this.initializeSearch();
+    this.loadSuggestions();
   }
 
   ngOnDestroy(): void {
@@ -57,6 +60,16 @@ export class SearchComponent implements OnInit, OnDestroy {
     this.router.navigate([`/profile/${username}`]);
   }
 
+  // Shown while the search box is empty; failing to load them just leaves the list out
+  private loadSuggestions(): void {
+    this.userService.getSuggestions()
+      .pipe(takeUntil(this.destroy$))
+      .subscribe({
+        next: (suggestions) => this.suggestions = suggestions,
+        error: (err) => console.error('Error fetching suggestions:', err)
+      });
+  }
+
   private initializeSearch(): void {
     this.searchTerms.pipe(
       debounceTime(300),
@@ -91,7 +104,7 @@ export class SearchComponent implements OnInit, OnDestroy {
       });
   }
 
-  trackByUserId(index: number, user: User): number {
+  trackByUserId(index: number, user: { id: number }): number {
     return user.id;
   }
 
@@ -1,6 +1,6 @@
 import { HttpClient } from '@angular/common/http';
 import { inject, Injectable } from '@angular/core';
-import { Observable } from 'rxjs';
+import { finalize, Observable, shareReplay, tap } from 'rxjs';
 import { environment } from '../environments/environment';
 import { AuthenticationResponse } from '../models/auth/authentication-response-model';
 import { LoginCredentials } from '../models/auth/login-credentials.model';
@@ -15,13 +15,29 @@ export class AuthService {
     private readonly http = inject(HttpClient);
     private readonly baseUrl = environment.apiUrl;
     private readonly endpoint = 'auth';
+    private refreshInFlight$: Observable<LoginResponse> | null = null;
 
     register(userData: RegistrationUserData): Observable<ApiResponse> {
         return this.http.post<ApiResponse>(`${this.baseUrl}/${this.endpoint}/signup`, userData);
     }
 
     login(credentials: LoginCredentials): Observable<LoginResponse> {
-        return this.http.post<LoginResponse>(`${this.baseUrl}/${this.endpoint}/login`, credentials);
+        const deviceId = this.getDeviceId();
+        return this.http.post<LoginResponse>(`${this.baseUrl}/${this.endpoint}/login`,
+            deviceId ? { ...credentials, deviceId } : credentials);
+    }
+
+    // Refresh tokens are single use, so concurrent callers share one refresh request
+    refresh(): Observable<LoginResponse> {
+        if (!this.refreshInFlight$) {
+            this.refreshInFlight$ = this.http.post<LoginResponse>(`${this.baseUrl}/${this.endpoint}/refresh`,
+                { refreshToken: this.getRefreshToken() }).pipe(
+                    tap(response => this.saveSession(response)),
+                    finalize(() => this.refreshInFlight$ = null),
+                    shareReplay(1)
+                );
+        }
+        return this.refreshInFlight$;
     }
 
     isLoggedIn(): Observable<AuthenticationResponse> {
@@ -31,10 +47,25 @@ export class AuthService {
     // TODO:
     logout(): Observable<any> {
         localStorage.removeItem('authToken');
+        localStorage.removeItem('refreshToken');
         localStorage.removeItem('username');
         return this.http.post(`${this.baseUrl}/${this.endpoint}/logout`, {});
     }
 
+    saveSession(response: LoginResponse): void {
+        this.saveToken(response.token);
+        localStorage.setItem('refreshToken', response.refreshToken);
+        localStorage.setItem('deviceId', response.deviceId);
+    }
+
+    getRefreshToken(): string | null {
+        return localStorage.getItem('refreshToken');
+    }
+
+    getDeviceId(): string | null {
+        return localStorage.getItem('deviceId');
+    }
+
     saveToken(token: string): void {
         localStorage.setItem('authToken', token);
     }
@@ -1,6 +1,6 @@
 import { DestroyRef, inject, Injectable } from '@angular/core';
 import { takeUntilDestroyed } from '@angular/core/rxjs-interop';
-import { catchError, forkJoin, map, Observable, of } from 'rxjs';
+import { catchError, map, Observable, of } from 'rxjs';
 import { Comment } from '../models/post/comment.model';
 import { Post } from '../models/post/post.model';
 import { AuthService } from './auth.service';
@@ -43,16 +43,17 @@ export class PostUtilsService {
   updatePostsLikeStatus(posts: Post[]): Observable<Post[]> {
     if (!posts.length) return of([]);
     
-    return forkJoin(
-      posts.map(post => 
-        this.postService.isLikedByUser(post.id).pipe(
-          catchError(() => of({ success: false })),
-          map(response => ({ 
-            ...post, 
-            isLiked: response.success 
-          }))
-        )
-      )
+    // Feed and profile pages already carry the viewer's like status
+    if (posts.every(post => post.likedByMe != null)) {
+      return of(posts.map(post => ({ ...post, isLiked: !!post.likedByMe })));
+    }
+
+    return this.postService.getLikeStatuses(posts.map(post => post.id)).pipe(
+      map(response => posts.map(post => ({
+        ...post,
+        isLiked: !!response.liked[post.id]
+      }))),
+      catchError(() => of(posts.map(post => ({ ...post, isLiked: false }))))
     );
   }
 
@@ -7,6 +7,9 @@ import { environment } from '../environments/environment';
 import { ApiResponse } from '../models/common/api-response.model';
 import { LikeResponse } from '../models/post/like-response.model';
 import { CommentResponse } from '../models/post/comment-response.model';
+import { LikeStatusesResponse } from '../models/post/like-statuses-response.model';
+import { CursorPageResponse } from '../models/common/cursor-page-response.model';
+import { Comment } from '../models/post/comment.model';
 
 @Injectable({
     providedIn: 'root'
@@ -58,6 +61,19 @@ export class PostService {
         return this.http.get<ApiResponse>(`${this.baseUrl}/${this.endpoint}/${postId}/status`);
     }
 
+    getLikeStatuses(postIds: number[]): Observable<LikeStatusesResponse> {
+        return this.http.get<LikeStatusesResponse>(`${this.baseUrl}/${this.endpoint}/status`, {
+            params: { postIds: postIds.join(',') }
+        });
+    }
+
+    getComments(postId: number, cursor?: string, size: number = 20): Observable<CursorPageResponse<Comment>> {
+        const params: Record<string, string | number> = { size };
+        if (cursor) params['cursor'] = cursor;
+
+        return this.http.get<CursorPageResponse<Comment>>(`${this.baseUrl}/${this.endpoint}/${postId}/comments`, { params });
+    }
+
     addComment(postId: number, content: string): Observable<CommentResponse> {
         return this.http.post<CommentResponse>(`${this.baseUrl}/${this.endpoint}/${postId}/comment`, {content});
     }
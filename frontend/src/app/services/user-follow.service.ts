@@ -8,6 +8,9 @@ import { FollowStatusResponse } from '../models/user/follow-status-response.mode
 import { ApiResponse } from '../models/common/api-response.model';
 import { UserFollowingResponse } from '../models/user/user-following-response.model';
 import { UserFollowersResponse } from '../models/user/user-followers-response.model';
+import { CursorPageResponse } from '../models/common/cursor-page-response.model';
+import { MutualFollowersResponse } from '../models/user/mutual-followers-response.model';
+import { UserSummary } from '../models/user/user-summary.model';
 
 @Injectable({
     providedIn: 'root'
@@ -44,4 +47,22 @@ export class UserFollowService {
     getUserFollowers(userId: number): Observable<UserFollowersResponse> {
         return this.http.get<UserFollowersResponse>(`${this.baseUrl}/${this.endpoint}/user/${userId}/followers`); 
     }
+
+    getMutualFollowers(userId: number, limit: number = 2): Observable<MutualFollowersResponse> {
+        return this.http.get<MutualFollowersResponse>(`${this.baseUrl}/${this.endpoint}/user/${userId}/mutual`, { params: { limit } });
+    }
+
+    getUserFollowingPage(userId: number, cursor?: string, size: number = 20): Observable<CursorPageResponse<UserSummary>> {
+        const params: Record<string, string | number> = { size };
+        if (cursor) params['cursor'] = cursor;
+
+        return this.http.get<CursorPageResponse<UserSummary>>(`${this.baseUrl}/${this.endpoint}/user/${userId}/following/cursor`, { params });
+    }
+
+    getUserFollowersPage(userId: number, cursor?: string, size: number = 20): Observable<CursorPageResponse<UserSummary>> {
+        const params: Record<string, string | number> = { size };
+        if (cursor) params['cursor'] = cursor;
+
+        return this.http.get<CursorPageResponse<UserSummary>>(`${this.baseUrl}/${this.endpoint}/user/${userId}/followers/cursor`, { params });
+    }
 }
\ No newline at end of file
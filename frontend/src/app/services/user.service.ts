@@ -5,6 +5,8 @@ import { User } from '../models/user/user.model';
 import { UpdateUserDetailsRequest } from '../models/user/update-user-details-request.model';
 import { environment } from '../environments/environment';
 import { ApiResponse } from '../models/common/api-response.model';
+import { UserSuggestion } from '../models/user/user-suggestion.model';
+import { UserSummary } from '../models/user/user-summary.model';
 
 @Injectable({
     providedIn: 'root'
@@ -18,14 +20,18 @@ export class UserService {
         return this.http.get<User>(`${this.baseUrl}/${this.endpoint}/me`);
     }
 
-    findUsersByUsername(userName: string): Observable<User[]> {
-        return this.http.get<User[]>(`${this.baseUrl}/${this.endpoint}/search?username=${userName}`);
+    findUsersByUsername(userName: string, limit: number = 10): Observable<UserSummary[]> {
+        return this.http.get<UserSummary[]>(`${this.baseUrl}/${this.endpoint}/search`, { params: { username: userName, limit } });
     }
     
     getUserByUsername(userName: string): Observable<User> {
         return this.http.get<User>(`${this.baseUrl}/${this.endpoint}/${userName}`);
     }
 
+    getSuggestions(): Observable<UserSuggestion[]> {
+        return this.http.get<UserSuggestion[]>(`${this.baseUrl}/${this.endpoint}/suggestions`);
+    }
+
     existsByUsername(userName: string): Observable<ApiResponse> {
         return this.http.get<ApiResponse>(`${this.baseUrl}/${this.endpoint}/exists/${userName}`);
     }